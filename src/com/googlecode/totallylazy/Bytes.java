@@ -8,6 +8,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 
 import static com.googlecode.totallylazy.Closeables.using;
 
@@ -43,12 +46,43 @@ public class Bytes {
 
     public static byte[] bytes(File file) {
         try {
-            return bytes(new FileInputStream(file));
+            return using(new FileInputStream(file).getChannel(), Bytes::bytes);
         } catch (FileNotFoundException e) {
             throw LazyException.lazyException(e);
         }
     }
 
+    /**
+     * Reads the rest of the channel into an array sized from the channel's size, growing it when the size isn't
+     * known up front (reported as 0) or the channel turns out to hold more. The channel is left open.
+     */
+    public static byte[] bytes(FileChannel channel) throws IOException {
+        long remaining = channel.size() - channel.position();
+        if (remaining > Integer.MAX_VALUE) throw new IllegalArgumentException("Too large for a byte array: " + remaining + " bytes");
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(remaining, 0));
+        // Only read into when the buffer is full, to find out whether there is more
+        ByteBuffer more = ByteBuffer.allocate(1);
+        while (true) {
+            if (buffer.hasRemaining()) {
+                if (channel.read(buffer) == -1) return Arrays.copyOf(buffer.array(), buffer.position());
+                continue;
+            }
+            more.clear();
+            if (channel.read(more) == -1) return buffer.array();
+            more.flip();
+            buffer = grow(buffer, more.remaining());
+            buffer.put(more);
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        long capacity = Math.max(Math.max(2L * buffer.capacity(), 8192), (long) buffer.capacity() + needed);
+        if (capacity > Integer.MAX_VALUE) throw new IllegalArgumentException("Too large for a byte array: " + capacity + " bytes");
+        ByteBuffer grown = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), (int) capacity));
+        grown.position(buffer.position());
+        return grown;
+    }
+
     public static <T extends OutputStream> T write(final byte[] value, final T outputStream) {
         try {
             outputStream.write(value);
@@ -1,11 +1,15 @@
 package com.googlecode.totallylazy;
 
-import com.googlecode.totallylazy.concurrent.NamedExecutors;
+import com.googlecode.totallylazy.concurrent.SharedExecutor;
+import com.googlecode.totallylazy.iterators.WindowedCallIterator;
 
+import java.util.Iterator;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
@@ -14,22 +18,17 @@ import static com.googlecode.totallylazy.Sequences.sequence;
 
 public final class Callers {
     public static <T> Function<T> callConcurrently(Callable<? extends T> callable) {
-        ExecutorService service = executorService();
-        try {
-            final Future<? extends T> future = service.submit(callable);
-            return new Function<T>() {
-                @Override
-                public T call() throws Exception {
-                    return future.get();
-                }
-            };
-        } finally {
-            service.shutdown();
-        }
+        final Future<? extends T> future = executorService().submit(callable);
+        return new Function<T>() {
+            @Override
+            public T call() throws Exception {
+                return get(future);
+            }
+        };
     }
 
     private static ExecutorService executorService() {
-        return NamedExecutors.newCachedThreadPool(Callers.class);
+        return SharedExecutor.sharedExecutor();
     }
 
     public static <T> Sequence<T> callConcurrently(final Callable<? extends T> first, final Callable<? extends T> second) {
@@ -54,12 +53,7 @@ public final class Callers {
     }
 
     public static <T> Sequence<T> callConcurrently(final Iterable<? extends Callable<? extends T>> callables) {
-        ExecutorService service = executorService();
-        try {
-            return callConcurrently(callables, service);
-        } finally {
-            service.shutdown();
-        }
+        return callConcurrently(callables, executorService());
     }
 
     public static <T> Sequence<T> callConcurrently(final Iterable<? extends Callable<? extends T>> callables, final Executor executor) {
@@ -69,6 +63,29 @@ public final class Callers {
                 map(Callers.<T>realiseFuture());
     }
 
+    /**
+     * Lazily calls at most maxInFlight callables at a time, yielding results in the order of the callables.
+     */
+    public static <T> Sequence<T> callConcurrently(final Iterable<? extends Callable<? extends T>> callables, final Executor executor, final int maxInFlight) {
+        return windowed(callables, executor, maxInFlight, true);
+    }
+
+    /**
+     * Lazily calls at most maxInFlight callables at a time, yielding results as soon as they complete.
+     */
+    public static <T> Sequence<T> callConcurrentlyUnordered(final Iterable<? extends Callable<? extends T>> callables, final Executor executor, final int maxInFlight) {
+        return windowed(callables, executor, maxInFlight, false);
+    }
+
+    private static <T> Sequence<T> windowed(final Iterable<? extends Callable<? extends T>> callables, final Executor executor, final int maxInFlight, final boolean ordered) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be greater than zero");
+        return new Sequence<T>() {
+            public Iterator<T> iterator() {
+                return new WindowedCallIterator<T>(callables.iterator(), executor, maxInFlight, ordered);
+            }
+        };
+    }
+
     public static <T> Function1<FutureTask<T>, Future<T>> executeWith(final Executor executor) {
         return new Function1<FutureTask<T>, Future<T>>() {
             public Future<T> call(FutureTask<T> task) throws Exception {
@@ -89,11 +106,33 @@ public final class Callers {
     public static <T> Function1<Future<T>, T> realiseFuture() {
         return new Function1<Future<T>, T>() {
             public final T call(final Future<T> future) throws Exception {
-                return future.get();
+                return get(future);
             }
         };
     }
 
+    // Lets a ForkJoinPool add a worker while one of its threads waits, so nested concurrent calls can not starve it
+    private static <T> T get(final Future<T> future) throws Exception {
+        if (!future.isDone() && Thread.currentThread() instanceof ForkJoinWorkerThread) {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    try {
+                        future.get();
+                    } catch (ExecutionException ignored) {
+                    }
+                    return true;
+                }
+
+                @Override
+                public boolean isReleasable() {
+                    return future.isDone();
+                }
+            });
+        }
+        return future.get();
+    }
+
     public static <T> Function1<Future<T>, T> realiseFuture(final long timeout, final TimeUnit unit) {
         return new Function1<Future<T>, T>() {
             public final T call(final Future<T> future) throws Exception {
@@ -2,6 +2,7 @@ package com.googlecode.totallylazy;
 
 import com.googlecode.totallylazy.callables.JoinCharSequence;
 import com.googlecode.totallylazy.numbers.Numbers;
+import com.googlecode.totallylazy.predicates.CharacterTable;
 import com.googlecode.totallylazy.predicates.LogicalPredicate;
 
 import java.nio.charset.Charset;
@@ -37,17 +38,7 @@ public class Characters {
     }
 
     public static LogicalPredicate<Character> in(final String characters) {
-        return new LogicalPredicate<Character>() {
-            @Override
-            public boolean matches(Character other) {
-                return characters.indexOf(other) != -1;
-            }
-
-            @Override
-            public String toString() {
-                return "[" + characters + "]";
-            }
-        };
+        return CharacterTable.among(characters);
     }
 
     public static LogicalPredicate<Character> among(String value) {
@@ -58,44 +49,38 @@ public class Characters {
         return not(in(value));
     }
 
-    public static LogicalPredicate<Character> identifierStart = new LogicalPredicate<Character>() {
-        @Override
+    public static LogicalPredicate<Character> identifierStart = CharacterTable.characters(new Predicate<Character>() {
         public boolean matches(Character other) {
             return Character.isJavaIdentifierStart(other);
         }
-    };
+    }, "identifierStart");
 
-    public static LogicalPredicate<Character> identifierPart = new LogicalPredicate<Character>() {
-        @Override
+    public static LogicalPredicate<Character> identifierPart = CharacterTable.characters(new Predicate<Character>() {
         public boolean matches(Character other) {
             return Character.isJavaIdentifierPart(other);
         }
-    };
+    }, "identifierPart");
 
-    public static LogicalPredicate<Character> letter = new LogicalPredicate<Character>() {
+    public static LogicalPredicate<Character> letter = CharacterTable.characters(new Predicate<Character>() {
         public boolean matches(Character other) {
             return Character.isLetter(other);
         }
-    };
+    }, "letter");
 
-    public static LogicalPredicate<Character> digit = new LogicalPredicate<Character>() {
+    public static LogicalPredicate<Character> digit = CharacterTable.characters(new Predicate<Character>() {
         public boolean matches(Character other) {
             return Character.isDigit(other);
         }
-    };
+    }, "digit");
 
-    public static LogicalPredicate<Character> whitespace = new LogicalPredicate<Character>() {
+    public static LogicalPredicate<Character> whitespace = CharacterTable.characters(new Predicate<Character>() {
         public boolean matches(Character other) {
             return Character.isWhitespace(other);
         }
-    };
+    }, "whitespace");
 
     public static LogicalPredicate<Character> between(final char start, final char end) {
-        return new LogicalPredicate<Character>() {
-            public boolean matches(Character other) {
-                return other >= start && other <= end;
-            }
-        };
+        return CharacterTable.between(start, end);
     }
 
     public static LogicalPredicate<Character> alphaNumeric = between('A', 'Z').or(between('a', 'z')).or(between('0', '9'));
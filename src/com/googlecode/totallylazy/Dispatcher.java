@@ -3,16 +3,21 @@ package com.googlecode.totallylazy;
 import com.googlecode.totallylazy.numbers.Numbers;
 import com.googlecode.totallylazy.predicates.LogicalPredicate;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.List;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import static com.googlecode.totallylazy.Callables.flip;
 import static com.googlecode.totallylazy.Callables.pair;
-import static com.googlecode.totallylazy.Callables.toClass;
 import static com.googlecode.totallylazy.Methods.methodName;
 import static com.googlecode.totallylazy.Methods.parameterTypes;
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.option;
 import static com.googlecode.totallylazy.Predicates.is;
 import static com.googlecode.totallylazy.Predicates.not;
 import static com.googlecode.totallylazy.Predicates.notNullValue;
@@ -23,21 +28,33 @@ import static com.googlecode.totallylazy.comparators.Comparators.by;
 import static com.googlecode.totallylazy.numbers.Numbers.ascending;
 import static com.googlecode.totallylazy.numbers.Numbers.minimum;
 import static com.googlecode.totallylazy.numbers.Numbers.sum;
+import static java.lang.reflect.Modifier.isStatic;
 
 public class Dispatcher {
+    // Shared by every Dispatcher (and so every multi and match) over the same class and selector
+    private static final ClassValue<ConcurrentMap<Key, Option<Target>>> targets = new ClassValue<ConcurrentMap<Key, Option<Target>>>() {
+        @Override
+        protected ConcurrentMap<Key, Option<Target>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<Key, Option<Target>>();
+        }
+    };
+
     private final Class<?> aClass;
     private final Object instance;
     private final Predicate<? super Method> predicate;
-    private final ConcurrentMap<List<?>, Option<Method>> cache = new ConcurrentHashMap<List<?>, Option<Method>>();
+    private final Object selector;
+    private final ConcurrentMap<Key, Option<Target>> cache;
 
-    private Dispatcher(Class<?> aClass, Object instance, Predicate<? super Method> predicate) {
+    private Dispatcher(Class<?> aClass, Object instance, Object selector, Predicate<? super Method> predicate) {
         this.aClass = aClass;
         this.instance = instance;
+        this.selector = selector;
         this.predicate = predicate;
+        this.cache = selector == null ? new ConcurrentHashMap<Key, Option<Target>>() : targets.get(aClass);
     }
 
     public static Dispatcher dispatcher(Class<?> aClass, String name) {
-        return dispatcher(aClass, where(methodName(), is(name)));
+        return new Dispatcher(aClass, null, name, where(methodName(), is(name)));
     }
 
     public static Dispatcher dispatcher(Class<?> aClass, Predicate<? super Method> predicate) {
@@ -45,7 +62,7 @@ public class Dispatcher {
     }
 
     public static Dispatcher dispatcher(Object instance, String name) {
-        return dispatcher(instance, where(methodName(), is(name)));
+        return new Dispatcher(instance.getClass(), instance, name, where(methodName(), is(name)));
     }
 
     public static Dispatcher dispatcher(Object instance, Predicate<? super Method> predicate) {
@@ -53,7 +70,15 @@ public class Dispatcher {
     }
 
     public static Dispatcher dispatcher(Class<?> aClass, Object instance, Predicate<? super Method> predicate) {
-        return new Dispatcher(aClass, instance, predicate);
+        return new Dispatcher(aClass, instance, null, predicate);
+    }
+
+    /**
+     * The selector must identify the predicate (equal selectors for the same class must select the same methods)
+     * so the chosen methods can be shared by every dispatcher created with it.
+     */
+    public static Dispatcher dispatcher(Class<?> aClass, Object instance, Object selector, Predicate<? super Method> predicate) {
+        return new Dispatcher(aClass, instance, selector, predicate);
     }
 
     public <T> T invoke(Object... args) {
@@ -61,27 +86,80 @@ public class Dispatcher {
     }
 
     public <T> Option<T> invokeOption(Object... args) {
-        final List<Class<?>> argumentClasses = sequence(args).map(toClass()).toList();
-        return computeIfAbsent(cache, argumentClasses, new Function<Option<Method>>() {
-            @Override
-            public Option<Method> call() throws Exception {
-                return Methods.allMethods(aClass).
-                        filter(predicate).
-                        filter(where(parameterTypes(), matches(argumentClasses))).
-                        sort(by(distanceFrom(argumentClasses), ascending())).
-                        headOption();
-            }
-        }).map(Methods.<T>invokeOn(instance, args));
+        Option<Target> target = target(args);
+        if (target.isEmpty()) return none();
+        return option(target.get().<T>invoke(instance, args));
+    }
+
+    private Option<Target> target(Object[] args) {
+        final Class<?>[] argumentClasses = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) argumentClasses[i] = args[i] == null ? Void.class : args[i].getClass();
+        Key key = new Key(selector, argumentClasses);
+        Option<Target> target = cache.get(key);
+        if (target != null) return target;
+        Option<Target> newTarget = Methods.allMethods(aClass).
+                filter(predicate).
+                filter(where(parameterTypes(), matches(sequence(argumentClasses)))).
+                sort(by(distanceFrom(sequence(argumentClasses)), ascending())).
+                headOption().
+                map(Target.target);
+        target = cache.putIfAbsent(key, newTarget);
+        return target == null ? newTarget : target;
     }
 
-    // Backported from Java 8
-    private <K,V> V computeIfAbsent(ConcurrentMap<K, V> cache, K key, Function<V> function) {
-        V v, newValue;
-        return ((v = cache.get(key)) == null &&
-                (newValue = function.apply()) != null &&
-                (v = cache.putIfAbsent(key, newValue)) == null) ? newValue : v;
+    private static final class Key {
+        private final Object selector;
+        private final Class<?>[] argumentClasses;
+        private final int hashCode;
+
+        private Key(Object selector, Class<?>[] argumentClasses) {
+            this.selector = selector;
+            this.argumentClasses = argumentClasses;
+            this.hashCode = 31 * (selector == null ? 0 : selector.hashCode()) + Arrays.hashCode(argumentClasses);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return (selector == null ? key.selector == null : selector.equals(key.selector)) && Arrays.equals(argumentClasses, key.argumentClasses);
+        }
+    }
 
+    // The chosen method bound once as a MethodHandle of type (Object receiver, Object[] arguments)Object
+    private static final class Target {
+        private static final Function1<Method, Target> target = new Function1<Method, Target>() {
+            @Override
+            public Target call(Method method) throws Exception {
+                return new Target(method);
+            }
+        };
+
+        private final MethodHandle handle;
+
+        private Target(Method method) throws IllegalAccessException {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            if (isStatic(method.getModifiers())) handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            int arity = method.getParameterTypes().length;
+            this.handle = handle.asType(MethodType.genericMethodType(arity + 1)).asSpreader(Object[].class, arity);
+        }
+
+        private <T> T invoke(Object instance, Object[] args) {
+            try {
+                return Unchecked.cast((Object) handle.invokeExact(instance, args));
+            } catch (Throwable e) {
+                // Same exception Method.invoke would have given callers
+                throw LazyException.lazyException(new InvocationTargetException(e));
+            }
+        }
     }
+
     private static Mapper<Method, Number> distanceFrom(final Iterable<Class<?>> argumentClasses) {
         return new Mapper<Method, Number>() {
             @Override
@@ -1,37 +1,160 @@
 package com.googlecode.totallylazy;
 
+import com.googlecode.totallylazy.predicates.AlwaysTrue;
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 import static com.googlecode.totallylazy.Callables.toString;
 import static com.googlecode.totallylazy.Functions.returns1;
+import static com.googlecode.totallylazy.LazyException.lazyException;
 import static com.googlecode.totallylazy.Predicates.always;
 import static com.googlecode.totallylazy.Predicates.is;
-import static com.googlecode.totallylazy.Sequences.characters;
 
+/**
+ * Replaces each character with the result of the most recently added rule that applies to it.
+ * <p/>
+ * The rules are compiled on first use into a table for the first 256 chars: rules whose predicate lowers to a
+ * {@link CharacterTable} are resolved up front (to a fixed replacement where the rule was added as one), and a char
+ * is only checked against the rules at escape time when an arbitrary predicate comes first or its rule has to be called.
+ */
 public class Escaper {
-    private final Rules<Character, String> rules = Rules.rules();
+    private static final int TABLE_SIZE = 256;
+    private static final Object SCAN = new Object();
+    private final Deque<Rule> rules = new ArrayDeque<Rule>();
+    private volatile Compiled compiled;
 
     public Escaper() {
-        rules.addLast(always(Character.class), toString);
+        rules.addLast(new Rule(always(Character.class), toString, null));
     }
 
     public Escaper withRule(Character appliesTo, final String result) {
-        return withRule(is(appliesTo), returns1(result));
+        return withRule(is(appliesTo), returns1(result), result);
     }
 
     public Escaper withRule(Predicate<? super Character> appliesTo, Callable1<? super Character, ? extends String> action) {
-        rules.addFirst(appliesTo, action);
+        return withRule(appliesTo, action, null);
+    }
+
+    private synchronized Escaper withRule(Predicate<? super Character> appliesTo, Callable1<? super Character, ? extends String> action, String result) {
+        rules.addFirst(new Rule(appliesTo, action, result));
+        compiled = null;
         return this;
     }
 
+    /**
+     * @return the value's toString() itself when nothing needs escaping
+     */
     public String escape(Object value) {
-        return value == null ? null : characters(value.toString()).map(escape()).toString("");
+        if (value == null) return null;
+        String text = value.toString();
+        Compiled escaper = compiled();
+        for (int i = 0; i < text.length(); i++) {
+            String replacement = escaper.replacement(text.charAt(i));
+            if (replacement == null) continue;
+            StringBuilder builder = new StringBuilder(text.length() + 16).append(text, 0, i).append(replacement);
+            try {
+                return escape(escaper, text, i + 1, builder).toString();
+            } catch (IOException e) {
+                throw lazyException(e);
+            }
+        }
+        return text;
+    }
+
+    public <A extends Appendable> A escape(CharSequence value, A appendable) throws IOException {
+        return escape(compiled(), value, 0, appendable);
+    }
+
+    private static <A extends Appendable> A escape(Compiled escaper, CharSequence value, int start, A appendable) throws IOException {
+        int unchanged = start;
+        for (int i = start; i < value.length(); i++) {
+            String replacement = escaper.replacement(value.charAt(i));
+            if (replacement == null) continue;
+            appendable.append(value, unchanged, i).append(replacement);
+            unchanged = i + 1;
+        }
+        appendable.append(value, unchanged, value.length());
+        return appendable;
+    }
+
+    private Compiled compiled() {
+        Compiled result = compiled;
+        if (result == null) {
+            synchronized (this) {
+                if (compiled == null) compiled = new Compiled(rules.toArray(new Rule[rules.size()]));
+                result = compiled;
+            }
+        }
+        return result;
     }
 
-    private Function1<Character, String> escape() {
-        return new Function1<Character, String>() {
-            public String call(Character character) throws Exception {
-                return rules.apply(character);
+    private static class Rule {
+        private final Predicate<? super Character> predicate;
+        private final Callable1<? super Character, ? extends String> action;
+        private final String result;
+        private final CharacterTable table;
+        private final boolean unchanged;
+
+        private Rule(Predicate<? super Character> predicate, Callable1<? super Character, ? extends String> action, String result) {
+            this.predicate = predicate;
+            this.action = action;
+            this.result = result;
+            this.unchanged = predicate instanceof AlwaysTrue && action == toString;
+            this.table = CharacterTable.table(predicate).getOrNull();
+        }
+
+        private boolean matches(char c) {
+            return table != null ? table.matches(c) : predicate.matches(c);
+        }
+
+        private String apply(char c) {
+            if (unchanged) return null;
+            if (result != null) return result;
+            try {
+                return action.call(c);
+            } catch (Exception e) {
+                throw lazyException(e);
             }
-        };
+        }
+
+        // What the table holds for a char this rule applies to: a fixed replacement, null when unchanged or the rule itself
+        private Object resolved() {
+            if (unchanged) return null;
+            if (result != null) return result;
+            return this;
+        }
     }
 
+    private static class Compiled {
+        private final Rule[] rules;
+        private final Object[] table = new Object[TABLE_SIZE];
+
+        private Compiled(Rule[] rules) {
+            this.rules = rules;
+            for (char c = 0; c < TABLE_SIZE; c++) table[c] = resolve(c);
+        }
+
+        private Object resolve(char c) {
+            for (Rule rule : rules) {
+                if (rule.table == null) return SCAN;
+                if (rule.table.matches(c)) return rule.resolved();
+            }
+            return null;
+        }
+
+        // null when c is left as it is
+        private String replacement(char c) {
+            if (c < TABLE_SIZE) {
+                Object entry = table[c];
+                if (entry == null) return null;
+                if (entry instanceof String) return (String) entry;
+                if (entry instanceof Rule) return ((Rule) entry).apply(c);
+            }
+            for (Rule rule : rules) if (rule.matches(c)) return rule.apply(c);
+            return null;
+        }
+    }
 }
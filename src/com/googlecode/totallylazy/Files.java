@@ -3,10 +3,22 @@ package com.googlecode.totallylazy;
 import com.googlecode.totallylazy.predicates.LogicalPredicate;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.Set;
 
@@ -228,6 +240,108 @@ public class Files {
         }
     }
 
+    public static Sequence<String> records(File file, String delimiter) {
+        return records(file, delimiter, Strings.UTF8);
+    }
+
+    public static Sequence<String> records(File file, String delimiter, Charset charset) {
+        try {
+            return Streams.records(new FileInputStream(file), delimiter, charset);
+        } catch (FileNotFoundException e) {
+            throw LazyException.lazyException(e);
+        }
+    }
+
+    public static CharSequence map(File file) {
+        return map(file, Strings.UTF8);
+    }
+
+    /**
+     * A read-only view of the file's characters, for Regex, the parsers or anything else that takes a CharSequence
+     * (Segment.constructors.characters makes it a Segment).
+     * <p/>
+     * ISO-8859-1 files, and UTF-8 or US-ASCII files that turn out to be pure ASCII, are read straight out of the
+     * memory mapping, though checking for ASCII pages in the whole file first. Anything else is decoded up front
+     * into a direct buffer of two bytes per char: off the heap, but counted against -XX:MaxDirectMemorySize (by
+     * default the maximum heap size), and only for files under 1GB.
+     */
+    public static CharSequence map(File file, Charset charset) {
+        try {
+            return using(new RandomAccessFile(file, "r"), (RandomAccessFile randomAccessFile) -> {
+                FileChannel channel = randomAccessFile.getChannel();
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Too large to map: " + size + " bytes");
+                MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (charset.equals(StandardCharsets.ISO_8859_1) || (asciiCompatible(charset) && ascii(bytes)))
+                    return new ByteCharacters(bytes, 0, (int) size);
+                return decode(bytes, charset);
+            });
+        } catch (FileNotFoundException e) {
+            throw LazyException.lazyException(e);
+        }
+    }
+
+    private static boolean asciiCompatible(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII);
+    }
+
+    private static boolean ascii(ByteBuffer bytes) {
+        for (int i = 0, size = bytes.limit(); i < size; i++) if (bytes.get(i) < 0) return false;
+        return true;
+    }
+
+    private static CharBuffer decode(ByteBuffer bytes, Charset charset) throws CharacterCodingException {
+        CharsetDecoder decoder = charset.newDecoder().
+                onMalformedInput(CodingErrorAction.REPLACE).
+                onUnmappableCharacter(CodingErrorAction.REPLACE);
+        long capacity = (long) Math.ceil(bytes.limit() * (double) decoder.maxCharsPerByte());
+        if (capacity * 2 > Integer.MAX_VALUE) throw new IllegalArgumentException("Too large to decode: " + bytes.limit() + " bytes");
+        CharBuffer characters = ByteBuffer.allocateDirect((int) capacity * 2).asCharBuffer();
+        CoderResult result = decoder.decode(bytes, characters, true);
+        if (!result.isUnderflow()) result.throwException();
+        decoder.flush(characters);
+        characters.flip();
+        return characters.asReadOnlyBuffer();
+    }
+
+    private static class ByteCharacters implements CharSequence {
+        private final ByteBuffer bytes;
+        private final int start;
+        private final int end;
+
+        private ByteCharacters(ByteBuffer bytes, int start, int end) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) throw new IndexOutOfBoundsException(String.valueOf(index));
+            return (char) (bytes.get(start + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) throw new IndexOutOfBoundsException(start + ", " + end);
+            return new ByteCharacters(bytes, this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            byte[] result = new byte[length()];
+            ByteBuffer view = bytes.duplicate();
+            view.position(start);
+            view.get(result);
+            return new String(result, StandardCharsets.ISO_8859_1);
+        }
+    }
+
     public static File deleteOnExit(File directory) {
         delete.add(directory);
         return directory;
@@ -0,0 +1,29 @@
+package com.googlecode.totallylazy;
+
+import java.util.concurrent.Callable;
+
+import static com.googlecode.totallylazy.callables.LazyCallable.lazy;
+
+/**
+ * Pair whose values are each computed once, on first use. Created by
+ * {@link Pair#pair(java.util.concurrent.Callable, java.util.concurrent.Callable)}.
+ */
+public class LazyPair<F, S> extends Pair<F, S> {
+    private final Lazy<F> first;
+    private final Lazy<S> second;
+
+    protected LazyPair(final Callable<? extends F> first, final Callable<? extends S> second) {
+        this.first = lazy(first);
+        this.second = lazy(second);
+    }
+
+    @Override
+    public F first() {
+        return first.value();
+    }
+
+    @Override
+    public S second() {
+        return second.value();
+    }
+}
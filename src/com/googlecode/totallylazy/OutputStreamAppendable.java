@@ -0,0 +1,124 @@
+package com.googlecode.totallylazy;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Encodes what is appended as UTF-8 into a reusable buffer, writing and flushing it to the stream each time it
+ * holds flushThreshold bytes, so a template or JSON can start reaching the client before it has all been written.
+ * <p/>
+ * Unpaired surrogates are written as '?', the same as String.getBytes(UTF_8). Not thread safe.
+ */
+public class OutputStreamAppendable implements Appendable, Flushable, Closeable {
+    public static final int DEFAULT_FLUSH_THRESHOLD = 8192;
+    private final OutputStream stream;
+    private final int flushThreshold;
+    private final byte[] buffer;
+    private int size;
+    private char highSurrogate;
+
+    private OutputStreamAppendable(OutputStream stream, int flushThreshold) {
+        this.stream = stream;
+        this.flushThreshold = Math.max(flushThreshold, 1);
+        // Room for one more encoded char once the threshold is nearly reached
+        this.buffer = new byte[this.flushThreshold + 3];
+    }
+
+    public static OutputStreamAppendable outputStreamAppendable(OutputStream stream) {
+        return outputStreamAppendable(stream, DEFAULT_FLUSH_THRESHOLD);
+    }
+
+    public static OutputStreamAppendable outputStreamAppendable(OutputStream stream, int flushThreshold) {
+        return new OutputStreamAppendable(stream, flushThreshold);
+    }
+
+    @Override
+    public OutputStreamAppendable append(CharSequence characters) throws IOException {
+        if (characters == null) return append("null");
+        return append(characters, 0, characters.length());
+    }
+
+    @Override
+    public OutputStreamAppendable append(CharSequence characters, int start, int end) throws IOException {
+        if (characters == null) return append("null", start, end);
+        for (int i = start; i < end; i++) {
+            encode(characters.charAt(i));
+            if (size >= flushThreshold) drain();
+        }
+        return this;
+    }
+
+    @Override
+    public OutputStreamAppendable append(char c) throws IOException {
+        encode(c);
+        if (size >= flushThreshold) drain();
+        return this;
+    }
+
+    private void encode(char c) {
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            buffer[size++] = '?';
+            encode(c);
+            return;
+        }
+        if (c < 0x80) {
+            buffer[size++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[size++] = (byte) (0xC0 | (c >> 6));
+            buffer[size++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer[size++] = '?';
+        } else {
+            buffer[size++] = (byte) (0xE0 | (c >> 12));
+            buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[size++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void drain() throws IOException {
+        if (size == 0) return;
+        stream.write(buffer, 0, size);
+        size = 0;
+        stream.flush();
+    }
+
+    /**
+     * Writes everything appended so far except a trailing high surrogate, which waits for its pair
+     */
+    @Override
+    public void flush() throws IOException {
+        drain();
+        stream.flush();
+    }
+
+    /**
+     * Writes everything appended, a trailing high surrogate as '?', and flushes without closing the stream
+     */
+    public void finish() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            buffer[size++] = '?';
+        }
+        flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        finish();
+        stream.close();
+    }
+}
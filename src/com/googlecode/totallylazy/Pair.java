@@ -4,25 +4,21 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 
 import static com.googlecode.totallylazy.Callers.call;
-import static com.googlecode.totallylazy.Functions.returns;
 import static com.googlecode.totallylazy.Sequences.sequence;
-import static com.googlecode.totallylazy.callables.LazyCallable.lazy;
 
-public class Pair<F, S> implements First<F>, Second<S>, Value<F>, Functor<F>, Map.Entry<F,S> {
-    private final Lazy<F> first;
-    private final Lazy<S> second;
-
-    protected Pair(final Callable<? extends F> first, final Callable<? extends S> second) {
-        this.first = lazy(first);
-        this.second = lazy(second);
+/**
+ * Holds no state itself: {@link StrictPair} keeps two plain values and {@link LazyPair} two lazily evaluated ones.
+ */
+public abstract class Pair<F, S> implements First<F>, Second<S>, Value<F>, Functor<F>, Map.Entry<F,S> {
+    protected Pair() {
     }
 
     public static <F, S> Pair<F, S> pair(final F first, final S second) {
-        return new Pair<F, S>(returns(first), returns(second));
+        return new StrictPair<F, S>(first, second);
     }
 
     public static <F, S> Pair<F, S> pair(final Callable<? extends F> first, final Callable<? extends S> second) {
-        return new Pair<F, S>(first, second);
+        return new LazyPair<F, S>(first, second);
     }
 
     public static <F, S> Function2<F, S, Pair<F, S>> pair() {
@@ -34,13 +30,9 @@ public class Pair<F, S> implements First<F>, Second<S>, Value<F>, Functor<F>, Ma
         };
     }
 
-    public final F first() {
-        return first.value();
-    }
+    public abstract F first();
 
-    public final S second() {
-        return second.value();
-    }
+    public abstract S second();
 
     @Override
     public F value() {
@@ -133,15 +125,23 @@ public class Pair<F, S> implements First<F>, Second<S>, Value<F>, Functor<F>, Ma
     @Override
     @SuppressWarnings("unchecked")
     public <NewF> Pair<NewF, S> map(final Callable1<? super F, ? extends NewF> callable) {
-        return pair(first.map(callable), second);
+        return pair(deferFirst().map(callable), deferSecond());
     }
 
     public <R> Pair<R, S> first(Callable1<? super F, ? extends R> map) {
-        return pair(first.then(map), second);
+        return pair(deferFirst().then(map), deferSecond());
     }
 
     public <R> Pair<F,R> second(Callable1<? super S, ? extends R> map) {
-        return pair(first, second.then(map));
+        return pair(deferFirst(), deferSecond().then(map));
+    }
+
+    private Function<F> deferFirst() {
+        return Callables.<F>first().deferApply(this);
+    }
+
+    private Function<S> deferSecond() {
+        return Callables.<S>second().deferApply(this);
     }
 
     public static class functions {
@@ -0,0 +1,236 @@
+package com.googlecode.totallylazy;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static com.googlecode.totallylazy.Unchecked.cast;
+
+/**
+ * A view of a Sequence whose terminal operations are split into chunks and run on a ForkJoinPool.
+ * <p/>
+ * map and filter are applied per chunk; fold and reduce run in parallel when given a {@link ReducerCombiner}
+ * (e.g. Numbers.sum() or Strings.join) and groupBy, toMap and sortBy merge per chunk results in source order.
+ * Sources that are not backed by a random access list are evaluated sequentially.
+ */
+public class ParallelSequence<T> extends Sequence<T> {
+    private final List<Object> source;
+    private final Callable1<Sequence<Object>, Sequence<T>> pipeline;
+    private final Sequence<T> sequential;
+    private final ForkJoinPool pool;
+
+    private ParallelSequence(List<Object> source, Callable1<Sequence<Object>, Sequence<T>> pipeline, Sequence<T> sequential, ForkJoinPool pool) {
+        this.source = source;
+        this.pipeline = pipeline;
+        this.sequential = sequential;
+        this.pool = pool;
+    }
+
+    public static <T> ParallelSequence<T> parallel(final Iterable<? extends T> iterable) {
+        return parallel(iterable, ForkJoinPool.commonPool());
+    }
+
+    public static <T> ParallelSequence<T> parallel(final Iterable<? extends T> iterable, final ForkJoinPool pool) {
+        if (iterable instanceof ParallelSequence) {
+            ParallelSequence<T> parallel = cast(iterable);
+            return new ParallelSequence<T>(parallel.source, parallel.pipeline, parallel.sequential, pool);
+        }
+        List<Object> list = RandomAccessSequence.list(iterable);
+        return new ParallelSequence<T>(list, ParallelSequence.<T>identity(), list == null ? Sequences.<T>sequence(iterable) : null, pool);
+    }
+
+    public boolean sized() {
+        return source != null;
+    }
+
+    public Sequence<T> sequential() {
+        return sized() ? Callers.call(pipeline, Sequences.sequence(source)) : sequential;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return sequential().iterator();
+    }
+
+    @Override
+    public ParallelSequence<T> parallel() {
+        return this;
+    }
+
+    @Override
+    public <S> ParallelSequence<S> map(final Callable1<? super T, ? extends S> callable) {
+        return then(new Callable1<Sequence<T>, Sequence<S>>() {
+            @Override
+            public Sequence<S> call(Sequence<T> chunk) throws Exception {
+                return chunk.map(callable);
+            }
+        });
+    }
+
+    @Override
+    public ParallelSequence<T> filter(final Predicate<? super T> predicate) {
+        return then(new Callable1<Sequence<T>, Sequence<T>>() {
+            @Override
+            public Sequence<T> call(Sequence<T> chunk) throws Exception {
+                return chunk.filter(predicate);
+            }
+        });
+    }
+
+    @Override
+    public <S> S fold(final S seed, final Callable2<? super S, ? super T, ? extends S> callable) {
+        if (!sized() || !(callable instanceof ReducerCombiner)) return super.fold(seed, callable);
+        final ReducerCombiner<T, S> combiner = cast(callable);
+        return combine(combiner, seed, this.<S>forkJoin(combiner));
+    }
+
+    @Override
+    public <S> S reduce(final Callable2<? super S, ? super T, ? extends S> callable) {
+        if (!sized() || !(callable instanceof ReducerCombiner)) return super.reduce(callable);
+        return this.<S>forkJoin(Unchecked.<ReducerCombiner<T, S>>cast(callable));
+    }
+
+    @Override
+    public <K> Map<K, List<T>> toMap(final Callable1<? super T, ? extends K> callable) {
+        if (!sized()) return super.toMap(callable);
+        return forkJoin(new Callable1<Sequence<T>, Map<K, List<T>>>() {
+            @Override
+            public Map<K, List<T>> call(Sequence<T> chunk) throws Exception {
+                return Maps.multiMap(chunk.iterator(), callable);
+            }
+        }, new Callable2<Map<K, List<T>>, Map<K, List<T>>, Map<K, List<T>>>() {
+            @Override
+            public Map<K, List<T>> call(Map<K, List<T>> left, Map<K, List<T>> right) throws Exception {
+                for (Map.Entry<K, List<T>> entry : right.entrySet()) {
+                    List<T> values = left.get(entry.getKey());
+                    if (values == null) left.put(entry.getKey(), entry.getValue());
+                    else values.addAll(entry.getValue());
+                }
+                return left;
+            }
+        }, new LinkedHashMap<K, List<T>>());
+    }
+
+    @Override
+    public <K> Sequence<Group<K, T>> groupBy(final Callable1<? super T, ? extends K> callable) {
+        if (!sized()) return super.groupBy(callable);
+        return Maps.entries(toMap(callable)).map(new Callable1<Map.Entry<K, List<T>>, Group<K, T>>() {
+            @Override
+            public Group<K, T> call(Map.Entry<K, List<T>> entry) throws Exception {
+                return new Group<K, T>(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    @Override
+    public Sequence<T> sortBy(final Comparator<? super T> comparator) {
+        if (!sized()) return super.sortBy(comparator);
+        return Sequences.sequence(forkJoin(new Callable1<Sequence<T>, List<T>>() {
+            @Override
+            public List<T> call(Sequence<T> chunk) throws Exception {
+                return Sequences.toSortedList(chunk, comparator);
+            }
+        }, new Callable2<List<T>, List<T>, List<T>>() {
+            @Override
+            public List<T> call(List<T> left, List<T> right) throws Exception {
+                return merge(left, right, comparator);
+            }
+        }, new ArrayList<T>()));
+    }
+
+    // Stable: on equal elements the left (earlier) chunk wins
+    private static <T> List<T> merge(List<T> left, List<T> right, Comparator<? super T> comparator) {
+        List<T> result = new ArrayList<T>(left.size() + right.size());
+        int l = 0, r = 0;
+        while (l < left.size() && r < right.size()) {
+            if (comparator.compare(right.get(r), left.get(l)) < 0) result.add(right.get(r++));
+            else result.add(left.get(l++));
+        }
+        result.addAll(left.subList(l, left.size()));
+        result.addAll(right.subList(r, right.size()));
+        return result;
+    }
+
+    private <S> S forkJoin(final ReducerCombiner<T, S> combiner) {
+        return forkJoin(new Callable1<Sequence<T>, S>() {
+            @Override
+            public S call(Sequence<T> chunk) throws Exception {
+                return chunk.fold(combiner.identity(), combiner);
+            }
+        }, new Callable2<S, S, S>() {
+            @Override
+            public S call(S left, S right) throws Exception {
+                return combiner.combine(left, right);
+            }
+        }, combiner.identity());
+    }
+
+    private <R> R forkJoin(Callable1<? super Sequence<T>, ? extends R> leaf, Callable2<? super R, ? super R, ? extends R> combine, R empty) {
+        if (source.isEmpty()) return empty;
+        int chunk = Math.max(1, source.size() / (pool.getParallelism() * 4));
+        return pool.invoke(new Chunk<T, R>(source, pipeline, 0, source.size(), chunk, leaf, combine));
+    }
+
+    private static <S, T> S combine(ReducerCombiner<T, S> combiner, S left, S right) {
+        try {
+            return combiner.combine(left, right);
+        } catch (Exception e) {
+            throw LazyException.lazyException(e);
+        }
+    }
+
+    private <S> ParallelSequence<S> then(final Callable1<Sequence<T>, Sequence<S>> step) {
+        if (!sized()) return new ParallelSequence<S>(null, null, Callers.call(step, sequential), pool);
+        return new ParallelSequence<S>(source, new Callable1<Sequence<Object>, Sequence<S>>() {
+            @Override
+            public Sequence<S> call(Sequence<Object> chunk) throws Exception {
+                return step.call(pipeline.call(chunk));
+            }
+        }, null, pool);
+    }
+
+    private static <T> Callable1<Sequence<Object>, Sequence<T>> identity() {
+        return new Callable1<Sequence<Object>, Sequence<T>>() {
+            @Override
+            public Sequence<T> call(Sequence<Object> chunk) throws Exception {
+                return cast(chunk);
+            }
+        };
+    }
+
+    private static class Chunk<T, R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+        private final List<Object> source;
+        private final Callable1<Sequence<Object>, Sequence<T>> pipeline;
+        private final int from;
+        private final int to;
+        private final int size;
+        private final Callable1<? super Sequence<T>, ? extends R> leaf;
+        private final Callable2<? super R, ? super R, ? extends R> combine;
+
+        private Chunk(List<Object> source, Callable1<Sequence<Object>, Sequence<T>> pipeline, int from, int to, int size, Callable1<? super Sequence<T>, ? extends R> leaf, Callable2<? super R, ? super R, ? extends R> combine) {
+            this.source = source;
+            this.pipeline = pipeline;
+            this.from = from;
+            this.to = to;
+            this.size = size;
+            this.leaf = leaf;
+            this.combine = combine;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= size) return Callers.call(leaf, Callers.call(pipeline, Sequences.sequence(source.subList(from, to))));
+            int middle = (from + to) >>> 1;
+            Chunk<T, R> left = new Chunk<T, R>(source, pipeline, from, middle, size, leaf, combine);
+            left.fork();
+            R right = new Chunk<T, R>(source, pipeline, middle, to, size, leaf, combine).compute();
+            return Callers.call(combine, left.join(), right);
+        }
+    }
+}
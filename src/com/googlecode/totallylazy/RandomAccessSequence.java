@@ -0,0 +1,36 @@
+package com.googlecode.totallylazy;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import static com.googlecode.totallylazy.Unchecked.cast;
+
+final class RandomAccessSequence<T> extends Sequence<T> {
+    private final List<? extends T> list;
+
+    RandomAccessSequence(List<? extends T> list) {
+        this.list = list;
+    }
+
+    static <T> List<T> list(Iterable<? extends T> iterable) {
+        if (iterable instanceof RandomAccessSequence) return cast(((RandomAccessSequence<?>) iterable).list);
+        if (iterable instanceof List && iterable instanceof RandomAccess) return cast(iterable);
+        return null;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return cast(list.iterator());
+    }
+
+    @Override
+    public T get(int i) throws IndexOutOfBoundsException {
+        return list.get(i);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+}
@@ -20,13 +20,18 @@ public class Reflection {
 
     public static Object enclosingInstance(Object innerClass) {
         try {
-            Field field = Fields.syntheticFields(innerClass.getClass()).
-                    find(where(name, startsWith("this$"))).
-                    get();
-            field.setAccessible(true);
-            return field.get(innerClass);
+            return enclosingInstanceFields.get(innerClass.getClass()).get().get(innerClass);
         } catch (Exception e) {
             throw new UnsupportedOperationException(e);
         }
     }
+
+    private static final ClassValue<Option<Field>> enclosingInstanceFields = new ClassValue<Option<Field>>() {
+        @Override
+        protected Option<Field> computeValue(Class<?> type) {
+            Option<Field> field = Fields.syntheticFields(type).find(where(name, startsWith("this$")));
+            if (!field.isEmpty()) field.get().setAccessible(true);
+            return field;
+        }
+    };
 }
@@ -4,6 +4,9 @@ import com.googlecode.totallylazy.collections.AbstractCollection;
 import com.googlecode.totallylazy.collections.Indexed;
 import com.googlecode.totallylazy.collections.PersistentCollection;
 import com.googlecode.totallylazy.collections.PersistentList;
+import com.googlecode.totallylazy.numbers.DoubleSequence;
+import com.googlecode.totallylazy.numbers.IntSequence;
+import com.googlecode.totallylazy.numbers.LongSequence;
 
 import java.util.Collection;
 import java.util.Comparator;
@@ -13,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.googlecode.totallylazy.Callables.ascending;
 import static com.googlecode.totallylazy.Callables.returnArgument;
@@ -69,6 +73,34 @@ public abstract class Sequence<T> extends AbstractCollection<T> implements Itera
         return Sequences.mapConcurrently(this, callable, executor);
     }
 
+    public <S> Sequence<S> mapConcurrently(final Callable1<? super T, S> callable, final int maxInFlight) {
+        return Sequences.mapConcurrently(this, callable, maxInFlight);
+    }
+
+    public <S> Sequence<S> mapConcurrently(final Callable1<? super T, S> callable, final Executor executor, final int maxInFlight) {
+        return Sequences.mapConcurrently(this, callable, executor, maxInFlight);
+    }
+
+    public <S> Sequence<S> mapConcurrentlyUnordered(final Callable1<? super T, S> callable, final int maxInFlight) {
+        return Sequences.mapConcurrentlyUnordered(this, callable, maxInFlight);
+    }
+
+    public <S> Sequence<S> mapConcurrentlyUnordered(final Callable1<? super T, S> callable, final Executor executor, final int maxInFlight) {
+        return Sequences.mapConcurrentlyUnordered(this, callable, executor, maxInFlight);
+    }
+
+    public IntSequence mapToInt(final Callable1<? super T, ? extends Number> callable) {
+        return IntSequence.ints(map(callable));
+    }
+
+    public LongSequence mapToLong(final Callable1<? super T, ? extends Number> callable) {
+        return LongSequence.longs(map(callable));
+    }
+
+    public DoubleSequence mapToDouble(final Callable1<? super T, ? extends Number> callable) {
+        return DoubleSequence.doubles(map(callable));
+    }
+
     @Override
     public <S> Sequence<S> map(final Callable1<? super T, ? extends S> callable) {
         return Sequences.map(this, callable);
@@ -404,6 +436,14 @@ public abstract class Sequence<T> extends AbstractCollection<T> implements Itera
         return Sequences.groupBy(this, callable);
     }
 
+    public ParallelSequence<T> parallel() {
+        return Sequences.parallel(this);
+    }
+
+    public ParallelSequence<T> parallel(final ForkJoinPool pool) {
+        return Sequences.parallel(this, pool);
+    }
+
     public Sequence<Sequence<T>> recursive(final Callable1<Sequence<T>, Pair<Sequence<T>, Sequence<T>>> callable) {
         return Sequences.recursive(this, callable);
     }
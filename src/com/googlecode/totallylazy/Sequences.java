@@ -2,7 +2,6 @@ package com.googlecode.totallylazy;
 
 import com.googlecode.totallylazy.collections.PersistentList;
 import com.googlecode.totallylazy.comparators.Comparators;
-import com.googlecode.totallylazy.iterators.ArrayIterator;
 import com.googlecode.totallylazy.iterators.CharacterIterator;
 import com.googlecode.totallylazy.iterators.EmptyIterator;
 import com.googlecode.totallylazy.iterators.EnumerationIterator;
@@ -20,8 +19,10 @@ import java.util.Deque;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
+import java.util.RandomAccess;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import static com.googlecode.totallylazy.Callables.ascending;
 import static com.googlecode.totallylazy.Callables.deferReturn;
@@ -33,8 +34,10 @@ import static com.googlecode.totallylazy.Predicates.where;
 import static com.googlecode.totallylazy.Triple.triple;
 import static com.googlecode.totallylazy.Unary.constructors.unary;
 import static com.googlecode.totallylazy.Unchecked.cast;
+import static com.googlecode.totallylazy.concurrent.SharedExecutor.sharedExecutor;
 import static com.googlecode.totallylazy.numbers.Numbers.range;
 import static java.nio.CharBuffer.wrap;
+import static java.util.Arrays.asList;
 
 public class Sequences {
     public static <T> Sequence<T> empty(Class<T> aClass) {
@@ -54,6 +57,8 @@ public class Sequences {
 
         if (iterable instanceof Sequence) return cast(iterable);
 
+        if (iterable instanceof List && iterable instanceof RandomAccess) return new RandomAccessSequence<T>((List<? extends T>) iterable);
+
         return new Sequence<T>() {
             public final Iterator<T> iterator() {
                 return cast(iterable.iterator());
@@ -97,20 +102,23 @@ public class Sequences {
     }
 
     @SafeVarargs
+    @SuppressWarnings("varargs")
     private static <T> Sequence<T> internal(final T... items) {
-        return sequence(items);
+        return array(items);
     }
 
     @SafeVarargs
+    @SuppressWarnings("varargs")
     public static <T> Sequence<T> sequence(final T... items) {
+        return array(items);
+    }
+
+    // The array is only ever read, so handing it on is safe
+    private static <T> Sequence<T> array(final T[] items) {
         if (items == null || items.length == 0) {
             return empty();
         }
-        return new Sequence<T>() {
-            public final Iterator<T> iterator() {
-                return new ArrayIterator<T>(items);
-            }
-        };
+        return new RandomAccessSequence<T>(asList(items));
     }
 
     public static <T> Sequence<T> memoize(final Enumeration<T> enumeration) {
@@ -678,10 +686,34 @@ public class Sequences {
         return callConcurrently(sequence(iterable).map(deferReturn(callable)), executor);
     }
 
+    public static <T, S> Sequence<S> mapConcurrently(final Iterable<? extends T> iterable, final Callable1<? super T, ? extends S> callable, final int maxInFlight) {
+        return mapConcurrently(iterable, callable, sharedExecutor(), maxInFlight);
+    }
+
+    public static <T, S> Sequence<S> mapConcurrently(final Iterable<? extends T> iterable, final Callable1<? super T, ? extends S> callable, final Executor executor, final int maxInFlight) {
+        return callConcurrently(sequence(iterable).map(deferReturn(callable)), executor, maxInFlight);
+    }
+
+    public static <T, S> Sequence<S> mapConcurrentlyUnordered(final Iterable<? extends T> iterable, final Callable1<? super T, ? extends S> callable, final int maxInFlight) {
+        return mapConcurrentlyUnordered(iterable, callable, sharedExecutor(), maxInFlight);
+    }
+
+    public static <T, S> Sequence<S> mapConcurrentlyUnordered(final Iterable<? extends T> iterable, final Callable1<? super T, ? extends S> callable, final Executor executor, final int maxInFlight) {
+        return Callers.callConcurrentlyUnordered(sequence(iterable).map(deferReturn(callable)), executor, maxInFlight);
+    }
+
     public static <T, K> Sequence<Group<K, T>> groupBy(final Iterable<? extends T> iterable, final Callable1<? super T, ? extends K> callable) {
         return Iterators.groupBy(iterable.iterator(), callable);
     }
 
+    public static <T> ParallelSequence<T> parallel(final Iterable<? extends T> iterable) {
+        return ParallelSequence.parallel(iterable);
+    }
+
+    public static <T> ParallelSequence<T> parallel(final Iterable<? extends T> iterable, final ForkJoinPool pool) {
+        return ParallelSequence.parallel(iterable, pool);
+    }
+
     public static boolean equalTo(Iterable<?> iterable, Iterable<?> other) {
         return Iterators.equalsTo(iterable.iterator(), other.iterator());
     }
@@ -1,15 +1,22 @@
 package com.googlecode.totallylazy;
 
+import com.googlecode.totallylazy.iterators.ByteRecordIterator;
+import com.googlecode.totallylazy.iterators.RecordIterator;
+
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 
 import static com.googlecode.totallylazy.Closeables.using;
 import static com.googlecode.totallylazy.LazyException.lazyException;
@@ -35,7 +42,14 @@ public class Streams {
         copy(input, out, 4096);
     }
 
+    /**
+     * File to file copies are handed to the OS with FileChannel.transferTo instead of going through the buffer
+     */
     public static void copy(InputStream input, OutputStream out, int bufferSize) throws IOException {
+        if (input instanceof FileInputStream && out instanceof FileOutputStream) {
+            copy(((FileInputStream) input).getChannel(), ((FileOutputStream) out).getChannel());
+            return;
+        }
         byte[] buffer = new byte[bufferSize];
         int read;
         while ((read = input.read(buffer)) > 0) {
@@ -43,6 +57,20 @@ public class Streams {
         }
     }
 
+    /**
+     * Copies from the input's position to its end, leaving the input positioned at the end
+     */
+    public static void copy(FileChannel input, WritableByteChannel out) throws IOException {
+        long position = input.position();
+        long size = input.size();
+        while (position < size) {
+            long transferred = input.transferTo(position, size - position, out);
+            if (transferred <= 0) break;
+            position += transferred;
+        }
+        input.position(position);
+    }
+
     public static InputStream emptyInputStream() {
         return new InputStream() {
             @Override
@@ -95,6 +123,41 @@ public class Streams {
         return repeat(readLine(new BufferedReader(reader))).takeWhile(notNullValue(String.class));
     }
 
+    /**
+     * Splits the stream on the UTF-8 bytes of the delimiter, decoding each record straight from the read buffer
+     */
+    public static Sequence<String> records(InputStream stream, String delimiter) {
+        return records(stream, delimiter, Strings.UTF8);
+    }
+
+    /**
+     * Splits on bytes for UTF-8, US-ASCII and ISO-8859-1, and decodes through a Reader for any other charset
+     */
+    public static Sequence<String> records(InputStream stream, String delimiter, Charset charset) {
+        if (!ByteRecordIterator.supports(charset)) return records(new InputStreamReader(stream, charset), delimiter);
+        return Sequences.forwardOnly(ByteRecordIterator.delimited(stream, delimiter, charset));
+    }
+
+    public static Sequence<String> records(Reader reader, String delimiter) {
+        return recordViews(reader, delimiter).map(Object::toString);
+    }
+
+    public static Sequence<String> records(Reader reader, int width) {
+        return recordViews(reader, width).map(Object::toString);
+    }
+
+    /**
+     * Each record is a reused view over the read buffer that is only valid until the sequence moves on,
+     * so nothing is allocated for records that are only inspected.
+     */
+    public static Sequence<CharSequence> recordViews(Reader reader, String delimiter) {
+        return Sequences.forwardOnly(RecordIterator.delimited(reader, delimiter));
+    }
+
+    public static Sequence<CharSequence> recordViews(Reader reader, int width) {
+        return Sequences.forwardOnly(RecordIterator.fixedWidth(reader, width));
+    }
+
     public static Function<String> readLine(final BufferedReader reader) {
         return new Function<String>() {
             public String call() throws Exception {
@@ -0,0 +1,25 @@
+package com.googlecode.totallylazy;
+
+/**
+ * Pair whose values are already known: no Lazy wrappers, locks or Callables, just two fields.
+ * Created by {@link Pair#pair(Object, Object)}; use {@link Pair#pair(java.util.concurrent.Callable, java.util.concurrent.Callable)} for lazy values.
+ */
+final class StrictPair<F, S> extends Pair<F, S> {
+    private final F first;
+    private final S second;
+
+    StrictPair(final F first, final S second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public F first() {
+        return first;
+    }
+
+    @Override
+    public S second() {
+        return second;
+    }
+}
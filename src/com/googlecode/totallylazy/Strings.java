@@ -5,6 +5,7 @@ import com.googlecode.totallylazy.annotations.tailrec;
 import com.googlecode.totallylazy.callables.JoinString;
 import com.googlecode.totallylazy.comparators.Maximum;
 import com.googlecode.totallylazy.comparators.Minimum;
+import com.googlecode.totallylazy.predicates.CharacterTable;
 import com.googlecode.totallylazy.predicates.ContainsPredicate;
 import com.googlecode.totallylazy.predicates.EndsWithPredicate;
 import com.googlecode.totallylazy.predicates.LogicalPredicate;
@@ -12,14 +13,11 @@ import com.googlecode.totallylazy.predicates.StartsWithPredicate;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.nio.charset.Charset;
 
 import static com.googlecode.totallylazy.Closeables.using;
-import static com.googlecode.totallylazy.LazyException.lazyException;
 import static com.googlecode.totallylazy.Predicates.notNullValue;
 import static com.googlecode.totallylazy.Predicates.or;
 import static com.googlecode.totallylazy.Sequences.characters;
@@ -186,11 +184,7 @@ public class Strings {
     }
 
     public static LogicalPredicate<Character> unicodeControlOrUndefinedCharacter() {
-        return new LogicalPredicate<Character>() {
-            public boolean matches(Character character) {
-                return character > 0x7F;
-            }
-        };
+        return CharacterTable.between((char) 0, (char) 0x7F).negate();
     }
 
     public static String capitalise(String value) {
@@ -238,11 +232,7 @@ public class Strings {
     }
 
     public static String toString(File file) {
-        try {
-            return toString(new FileInputStream(file));
-        } catch (FileNotFoundException e) {
-            throw lazyException(e);
-        }
+        return toString(Bytes.bytes(file));
     }
 
     public static String toString(final InputStream stream) {
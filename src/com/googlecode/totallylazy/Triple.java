@@ -5,7 +5,7 @@ import java.util.concurrent.Callable;
 import static com.googlecode.totallylazy.Functions.returns;
 import static com.googlecode.totallylazy.callables.LazyCallable.lazy;
 
-public class Triple<F, S, T> extends Pair<F, S> implements Third<T> {
+public class Triple<F, S, T> extends LazyPair<F, S> implements Third<T> {
     private final Value<? extends T> third;
 
     public static <F, S, T> Triple<F, S, T> triple(final F first, final S second, final T third) {
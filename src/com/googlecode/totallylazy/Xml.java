@@ -3,6 +3,7 @@ package com.googlecode.totallylazy;
 import com.googlecode.totallylazy.iterators.NodeIterator;
 import com.googlecode.totallylazy.iterators.PoppingIterator;
 import com.googlecode.totallylazy.predicates.LogicalPredicate;
+import com.googlecode.totallylazy.xml.XPathExpressions;
 import org.w3c.dom.Attr;
 import org.w3c.dom.CharacterData;
 import org.w3c.dom.Document;
@@ -25,7 +26,6 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import java.io.ByteArrayInputStream;
@@ -33,7 +33,6 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.NoSuchElementException;
 
 import static com.googlecode.totallylazy.Strings.bytes;
@@ -64,7 +63,7 @@ public class Xml {
 
     public static Number selectNumber(final Node node, final String expression) {
         try {
-            return (Number) xpathExpression(expression).evaluate(node, XPathConstants.NUMBER);
+            return (Number) expressions.evaluate(expression, node, XPathConstants.NUMBER);
         } catch (XPathExpressionException e) {
             throw LazyException.lazyException(e);
         }
@@ -72,7 +71,7 @@ public class Xml {
 
     public static boolean matches(final Node node, final String expression) {
         try {
-            return (Boolean) xpathExpression(expression).evaluate(node, XPathConstants.BOOLEAN);
+            return (Boolean) expressions.evaluate(expression, node, XPathConstants.BOOLEAN);
         } catch (XPathExpressionException e) {
             throw LazyException.lazyException(e);
         }
@@ -80,10 +79,10 @@ public class Xml {
 
     private static Sequence<Node> internalSelectNodes(final Node node, final String expression) {
         try {
-            return sequence((NodeList) xpathExpression(expression).evaluate(node, XPathConstants.NODESET));
+            return sequence((NodeList) expressions.evaluate(expression, node, XPathConstants.NODESET));
         } catch (XPathExpressionException e) {
             try {
-                String nodeAsString = (String) xpathExpression(expression).evaluate(node, XPathConstants.STRING);
+                String nodeAsString = (String) expressions.evaluate(expression, node, XPathConstants.STRING);
                 return Sequences.<Node>sequence(documentFor(node).createTextNode(nodeAsString));
             } catch (XPathExpressionException ignore) {
                 throw new IllegalArgumentException(String.format("Failed to compile xpath '%s'", expression), e);
@@ -139,19 +138,13 @@ public class Xml {
         return xpath.get();
     }
 
-    private static ThreadLocal<Map<String, XPathExpression>> expressions = new ThreadLocal<Map<String, XPathExpression>>() {
-        @Override
-        protected Map<String, XPathExpression> initialValue() {
-            return Maps.lruMap(getInteger("totallylazy.xpath.cache.size", 1000));
-        }
-    };
+    private static final XPathExpressions expressions = XPathExpressions.xpathExpressions(getInteger("totallylazy.xpath.cache.size", 1000));
 
-    private static XPathExpression xpathExpression(String expression) throws XPathExpressionException {
-        Map<String, XPathExpression> expressionMap = expressions.get();
-        if (!expressionMap.containsKey(expression)) {
-            expressionMap.put(expression, xpath().compile(expression));
-        }
-        return expressionMap.get(expression);
+    /**
+     * The compiled expressions shared by selectNodes, selectNumber, matches and the rest
+     */
+    public static XPathExpressions xpathExpressions() {
+        return expressions;
     }
 
     public static Sequence<Node> sequence(final NodeList nodes) {
@@ -348,6 +341,10 @@ public class Xml {
                 escape(value);
     }
 
+    public static <A extends Appendable> A escape(Object value, A appendable) throws IOException {
+        return DEFAULT_ESCAPER.escape(String.valueOf(value), appendable);
+    }
+
     public static Function1<Object, String> escape() {
         return new Function1<Object, String>() {
             public String call(Object value) throws Exception {
@@ -359,7 +356,7 @@ public class Xml {
     public static Function1<Character, String> toXmlEntity() {
         return new Function1<Character, String>() {
             public String call(Character character) throws Exception {
-                return String.format("&#%s;", Integer.toString(character, 10));
+                return "&#" + (int) character + ";";
             }
         };
     }
@@ -15,11 +15,19 @@ public final class CountingCallable1<T,R> extends Function1<T,R> {
     }
 
     public final R call(T t) throws Exception {
-        count.put(t, count(t) + 1);
+        synchronized (count) {
+            count.put(t, countOf(t) + 1);
+        }
         return callable.call(t);
     }
 
     public final int count(T t) {
+        synchronized (count) {
+            return countOf(t);
+        }
+    }
+
+    private int countOf(T t) {
         if(!count.containsKey(t)){
             count.put(t, 0);
         }
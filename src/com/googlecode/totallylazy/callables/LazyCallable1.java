@@ -1,46 +1,282 @@
 package com.googlecode.totallylazy.callables;
 
 import com.googlecode.totallylazy.Callable1;
-import com.googlecode.totallylazy.Closeables;
 import com.googlecode.totallylazy.Function1;
 import com.googlecode.totallylazy.Memory;
+import com.googlecode.totallylazy.Unchecked;
+import com.googlecode.totallylazy.time.Clock;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static com.googlecode.totallylazy.Closeables.safeClose;
 
+/**
+ * Memorises the result of a Callable1 per argument.
+ * <p/>
+ * Reads of already computed values do not take any lock, and each argument is computed under its own lock so a slow
+ * argument never blocks callers asking for a different one. Optionally the memory can be bounded by size or weight
+ * (evicting the least recently or least frequently used values) and values can expire after a time to live measured
+ * by a {@link Clock}, from when each value was computed. Expired values are dropped when they are next asked for,
+ * and by a sweep on the first miss after each time to live has passed, so values that are never asked for again
+ * don't accumulate. Evicted and expired values are closed, as forget() and close() close every value.
+ */
 public final class LazyCallable1<T, R> extends Function1<T, R> implements Memory {
+    private static final Object NULL = new Object();
+    private static final Callable1<Object, Integer> one = new Callable1<Object, Integer>() {
+        @Override
+        public Integer call(Object o) throws Exception {
+            return 1;
+        }
+    };
+
     private final Callable1<? super T, ? extends R> callable;
-    private final Map<T, R> state = new HashMap<T, R>();
-    private final Object lock = new Object();
+    private final ConcurrentMap<Object, Memo<R>> state = new ConcurrentHashMap<Object, Memo<R>>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Limits limits;
 
-    private LazyCallable1(Callable1<? super T, ? extends R> callable) {
+    private LazyCallable1(Callable1<? super T, ? extends R> callable, Limits limits) {
         this.callable = callable;
+        this.limits = limits;
     }
 
     public static <T, R> LazyCallable1<T, R> lazy(Callable1<? super T, ? extends R> callable) {
-        return new LazyCallable1<T, R>(callable);
+        return new LazyCallable1<T, R>(callable, null);
+    }
+
+    public static <T, R> LazyCallable1<T, R> leastRecentlyUsed(Callable1<? super T, ? extends R> callable, int maximumSize) {
+        return leastRecentlyUsed(callable, one, maximumSize);
+    }
+
+    public static <T, R> LazyCallable1<T, R> leastRecentlyUsed(Callable1<? super T, ? extends R> callable, Callable1<? super R, ? extends Number> weigher, long maximumWeight) {
+        return new LazyCallable1<T, R>(callable, new Limits(Eviction.LeastRecentlyUsed, weigher, maximumWeight, null, Long.MAX_VALUE));
+    }
+
+    public static <T, R> LazyCallable1<T, R> leastFrequentlyUsed(Callable1<? super T, ? extends R> callable, int maximumSize) {
+        return leastFrequentlyUsed(callable, one, maximumSize);
+    }
+
+    public static <T, R> LazyCallable1<T, R> leastFrequentlyUsed(Callable1<? super T, ? extends R> callable, Callable1<? super R, ? extends Number> weigher, long maximumWeight) {
+        return new LazyCallable1<T, R>(callable, new Limits(Eviction.LeastFrequentlyUsed, weigher, maximumWeight, null, Long.MAX_VALUE));
+    }
+
+    public static <T, R> LazyCallable1<T, R> expiring(Callable1<? super T, ? extends R> callable, Clock clock, long timeToLive, TimeUnit unit) {
+        return new LazyCallable1<T, R>(callable, new Limits(Eviction.None, one, Long.MAX_VALUE, clock, unit.toMillis(timeToLive)));
     }
 
     public final R call(T instance) throws Exception {
-        synchronized (lock) {
-            if (!state.containsKey(instance)) {
-                state.put(instance, callable.call(instance));
-            }
-            return state.get(instance);
+        Object key = instance == null ? NULL : instance;
+        Memo<R> memo = state.get(key);
+        if (memo != null && expired(memo)) {
+            evict(key, memo);
+            memo = null;
+        }
+        if (memo == null) {
+            Memo<R> created = new Memo<R>();
+            memo = state.putIfAbsent(key, created);
+            if (memo == null) return compute(key, created, instance);
+        }
+        hits.incrementAndGet();
+        return touch(memo).value(callable, instance);
+    }
+
+    private R compute(Object key, Memo<R> memo, T instance) throws Exception {
+        misses.incrementAndGet();
+        if (limits != null && limits.clock != null) sweep();
+        try {
+            R result = touch(memo).value(callable, instance);
+            if (limits != null && limits.clock != null) memo.created = limits.clock.now().getTime();
+            if (limits != null && limits.bounded()) weigh(key, memo, result);
+            return result;
+        } catch (Exception e) {
+            state.remove(key, memo);
+            throw e;
         }
     }
 
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long evictions() {
+        return limits == null ? 0 : limits.evictions.get();
+    }
+
+    public int size() {
+        return state.size();
+    }
+
     public void forget() {
         close();
     }
 
     @Override
     public void close() {
-        synchronized (lock) {
-            for (R r : state.values()) safeClose(r);
+        synchronized (state) {
+            for (Memo<R> memo : state.values()) safeClose(memo.value);
             state.clear();
+            if (limits != null) limits.weight = 0;
+        }
+    }
+
+    private boolean expired(Memo<R> memo) {
+        return limits != null && limits.clock != null && expired(memo, limits.clock.now().getTime());
+    }
+
+    // A memo is only stamped once its value is available, so one still being computed is never expired
+    private boolean expired(Memo<R> memo, long now) {
+        return now - memo.created >= limits.timeToLive;
+    }
+
+    // At most one sweep per time to live, run by whichever miss gets there first
+    private void sweep() {
+        long now = limits.clock.now().getTime();
+        long last = limits.lastSweep.get();
+        if (now - last < limits.timeToLive || !limits.lastSweep.compareAndSet(last, now)) return;
+        for (Map.Entry<Object, Memo<R>> entry : state.entrySet()) {
+            if (expired(entry.getValue(), now)) evict(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private Memo<R> touch(Memo<R> memo) {
+        if (limits == null) return memo;
+        if (limits.eviction == Eviction.LeastRecentlyUsed) memo.used = System.nanoTime();
+        if (limits.eviction == Eviction.LeastFrequentlyUsed) Memo.USES.incrementAndGet(memo);
+        return memo;
+    }
+
+    private void weigh(Object key, Memo<R> memo, R result) throws Exception {
+        long memoWeight = limits.weigher.call(result).longValue();
+        synchronized (state) {
+            if (state.get(key) != memo) return;
+            memo.weight = memoWeight;
+            limits.weight += memoWeight;
+            if (limits.weight > limits.maximumWeight) evictAllBut(memo);
+        }
+    }
+
+    private void evict(Object key, Memo<R> memo) {
+        synchronized (state) {
+            if (!state.remove(key, memo)) return;
+            limits.weight -= memo.weight;
+            limits.evictions.incrementAndGet();
+        }
+        safeClose(memo.value);
+    }
+
+    // Evicting a tenth of the bound in one pass amortises the cost of ranking the values over many misses
+    private void evictAllBut(Memo<R> newest) {
+        List<Candidate<R>> candidates = new ArrayList<Candidate<R>>(state.size());
+        for (Map.Entry<Object, Memo<R>> entry : state.entrySet()) {
+            if (entry.getValue() != newest) candidates.add(new Candidate<R>(entry.getKey(), entry.getValue(), limits.eviction.rank(entry.getValue())));
+        }
+        Collections.sort(candidates);
+        long target = limits.maximumWeight - limits.maximumWeight / 10;
+        for (Candidate<R> candidate : candidates) {
+            if (limits.weight <= target) return;
+            evict(candidate.key, candidate.memo);
+        }
+    }
+
+    // The bound and expiry, only made for the memories that have them so plain lazy() ones don't pay for them
+    private static final class Limits {
+        private final Eviction eviction;
+        private final Callable1<Object, ? extends Number> weigher;
+        private final long maximumWeight;
+        private final Clock clock;
+        private final long timeToLive;
+        private final AtomicLong evictions = new AtomicLong();
+        private final AtomicLong lastSweep;
+        private long weight;
+
+        private Limits(Eviction eviction, Callable1<?, ? extends Number> weigher, long maximumWeight, Clock clock, long timeToLive) {
+            if (maximumWeight < 1) throw new IllegalArgumentException("maximumWeight must be greater than zero");
+            if (timeToLive < 1) throw new IllegalArgumentException("timeToLive must be greater than zero");
+            this.eviction = eviction;
+            this.weigher = Unchecked.cast(weigher);
+            this.maximumWeight = maximumWeight;
+            this.clock = clock;
+            this.timeToLive = timeToLive;
+            this.lastSweep = clock == null ? null : new AtomicLong(clock.now().getTime());
+        }
+
+        private boolean bounded() {
+            return maximumWeight != Long.MAX_VALUE;
+        }
+    }
+
+    private static final class Candidate<R> implements Comparable<Candidate<R>> {
+        private final Object key;
+        private final Memo<R> memo;
+        private final long rank;
+
+        private Candidate(Object key, Memo<R> memo, long rank) {
+            this.key = key;
+            this.memo = memo;
+            this.rank = rank;
+        }
+
+        @Override
+        public int compareTo(Candidate<R> other) {
+            return rank < other.rank ? -1 : rank == other.rank ? 0 : 1;
+        }
+    }
+
+    private enum Eviction {
+        None {
+            @Override
+            long rank(Memo<?> memo) {
+                return 0;
+            }
+        },
+        LeastRecentlyUsed {
+            @Override
+            long rank(Memo<?> memo) {
+                return memo.used;
+            }
+        },
+        LeastFrequentlyUsed {
+            @Override
+            long rank(Memo<?> memo) {
+                return memo.uses;
+            }
+        };
+
+        abstract long rank(Memo<?> memo);
+    }
+
+    private static final class Memo<R> {
+        private static final AtomicIntegerFieldUpdater<Memo<?>> USES = Unchecked.cast(AtomicIntegerFieldUpdater.newUpdater(Memo.class, "uses"));
+        private volatile long created = Long.MAX_VALUE;
+        private volatile boolean done;
+        private R value;
+        private volatile long used;
+        private volatile int uses;
+        private long weight;
+
+        // Thread-safe double check idiom (Effective Java 2nd edition p.283)
+        private <T> R value(Callable1<? super T, ? extends R> callable, T instance) throws Exception {
+            if (!done) {
+                synchronized (this) {
+                    if (!done) {
+                        value = callable.call(instance);
+                        done = true;
+                    }
+                }
+            }
+            return value;
         }
     }
 }
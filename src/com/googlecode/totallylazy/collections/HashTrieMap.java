@@ -0,0 +1,435 @@
+package com.googlecode.totallylazy.collections;
+
+import com.googlecode.totallylazy.Callable1;
+import com.googlecode.totallylazy.Callable2;
+import com.googlecode.totallylazy.Callers;
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.Predicate;
+import com.googlecode.totallylazy.Predicates;
+import com.googlecode.totallylazy.Unchecked;
+import com.googlecode.totallylazy.annotations.multimethod;
+import com.googlecode.totallylazy.iterators.StatefulIterator;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Unchecked.cast;
+
+/**
+ * Persistent hash array mapped trie (Bagwell) using 32 way bitmap indexed nodes and collision nodes.
+ * <p/>
+ * Keys and values are stored inline in the node arrays (a null key slot holds a child node) so
+ * lookup, insert and delete only touch at most 7 levels and share everything off the modified path.
+ */
+public class HashTrieMap<K, V> extends AbstractMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final Object NOT_FOUND = new Object();
+    private static final HashTrieMap<?, ?> EMPTY = new HashTrieMap<Object, Object>(new BitmapIndexedNode(0, new Object[0], 0));
+
+    private final Node root;
+
+    private HashTrieMap(Node root) {
+        this.root = root;
+    }
+
+    public static <K, V> HashTrieMapFactory<K, V> factory() {
+        return HashTrieMapFactory.factory();
+    }
+
+    public static <K, V> HashTrieMap<K, V> hashTrieMap() {
+        return cast(EMPTY);
+    }
+
+    public static <K, V> HashTrieMap<K, V> hashTrieMap(Iterable<? extends Pair<K, V>> values) {
+        HashTrieMap<K, V> map = hashTrieMap();
+        for (Pair<K, V> pair : values) map = map.insert(pair.first(), pair.second());
+        return map;
+    }
+
+    private static <K, V> HashTrieMap<K, V> hashTrieMap(Node root) {
+        if (root == null || root.size == 0) return hashTrieMap();
+        return new HashTrieMap<K, V>(root);
+    }
+
+    @Override
+    public HashTrieMap<K, V> empty() {
+        return hashTrieMap();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root.size == 0;
+    }
+
+    @Override
+    public int size() {
+        return root.size;
+    }
+
+    @Override
+    public Pair<K, V> head() throws NoSuchElementException {
+        return iterator().next();
+    }
+
+    @Override
+    public Option<Pair<K, V>> headOption() {
+        if (isEmpty()) return Option.none();
+        return Option.some(head());
+    }
+
+    @Override
+    public HashTrieMap<K, V> cons(Pair<K, V> head) {
+        return insert(head.first(), head.second());
+    }
+
+    @Override
+    public HashTrieMap<K, V> tail() throws NoSuchElementException {
+        return delete(head().first());
+    }
+
+    @Override
+    public Option<V> lookup(K key) {
+        Object value = root.find(0, key.hashCode(), key);
+        if (value == NOT_FOUND) return Option.none();
+        return Option.option(Unchecked.<V>cast(value));
+    }
+
+    @Override
+    public boolean contains(Object other) {
+        return root.find(0, other.hashCode(), other) != NOT_FOUND;
+    }
+
+    @Override
+    public HashTrieMap<K, V> insert(K key, V value) {
+        Node newRoot = root.insert(0, key.hashCode(), key, value);
+        if (newRoot == root) return this;
+        return hashTrieMap(newRoot);
+    }
+
+    @Override
+    public HashTrieMap<K, V> delete(K key) {
+        Node newRoot = root.delete(0, key.hashCode(), key);
+        if (newRoot == root) return this;
+        return hashTrieMap(newRoot);
+    }
+
+    @Override
+    public HashTrieMap<K, V> filter(Predicate<? super Pair<K, V>> predicate) {
+        return hashTrieMap(toSequence().filter(predicate));
+    }
+
+    @Override
+    public HashTrieMap<K, V> filterKeys(Predicate<? super K> predicate) {
+        return filter(Predicates.<K>first(predicate));
+    }
+
+    @Override
+    public HashTrieMap<K, V> filterValues(Predicate<? super V> predicate) {
+        return filter(Predicates.<V>second(predicate));
+    }
+
+    @Override
+    public <NewV> HashTrieMap<K, NewV> map(Callable1<? super V, ? extends NewV> transformer) {
+        return hashTrieMap(root.map(transformer));
+    }
+
+    @Override
+    public <S> S fold(S seed, Callable2<? super S, ? super Pair<K, V>, ? extends S> callable) {
+        return toSequence().fold(seed, callable);
+    }
+
+    @Override
+    public Option<V> find(Predicate<? super K> predicate) {
+        for (Pair<K, V> pair : this) {
+            if (predicate.matches(pair.first())) return Option.option(pair.second());
+        }
+        return Option.none();
+    }
+
+    @Override
+    public boolean exists(Predicate<? super K> predicate) {
+        return toSequence().exists(Predicates.<K>first(predicate));
+    }
+
+    @Override
+    public Iterator<Pair<K, V>> iterator() {
+        return new NodeIterator<K, V>(root);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (Pair<K, V> pair : this) {
+            V value = pair.second();
+            hash += pair.first().hashCode() ^ (value == null ? 0 : value.hashCode());
+        }
+        return hash;
+    }
+
+    @multimethod
+    public boolean equals(HashTrieMap<K, V> other) {
+        if (size() != other.size()) return false;
+        for (Pair<K, V> pair : other) {
+            Object value = root.find(0, pair.first().hashCode(), pair.first());
+            if (value == NOT_FOUND || !equal(value, pair.second())) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return toSequence().toString("");
+    }
+
+    private static boolean equal(Object a, Object b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static int index(int hash, int shift) {
+        return (hash >>> shift) & MASK;
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << index(hash, shift);
+    }
+
+    private static Object[] copy(Object[] array, int index, Object value) {
+        Object[] result = array.clone();
+        result[index] = value;
+        return result;
+    }
+
+    private static Object[] insertPair(Object[] array, int index, Object key, Object value) {
+        Object[] result = new Object[array.length + 2];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = key;
+        result[index + 1] = value;
+        System.arraycopy(array, index, result, index + 2, array.length - index);
+        return result;
+    }
+
+    private static Object[] removePair(Object[] array, int index) {
+        Object[] result = new Object[array.length - 2];
+        System.arraycopy(array, 0, result, 0, index);
+        System.arraycopy(array, index + 2, result, index, array.length - index - 2);
+        return result;
+    }
+
+    private static Node node(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        int hash1 = key1.hashCode();
+        if (hash1 == hash2) return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+        return new BitmapIndexedNode(0, new Object[0], 0).
+                insert(shift, hash1, key1, value1).
+                insert(shift, hash2, key2, value2);
+    }
+
+    /**
+     * Both node types store alternating key / value slots; a null key means the value slot holds a child {@link Node}.
+     */
+    private static abstract class Node {
+        protected final Object[] array;
+        protected final int size;
+
+        protected Node(Object[] array, int size) {
+            this.array = array;
+            this.size = size;
+        }
+
+        abstract Object find(int shift, int hash, Object key);
+
+        abstract Node insert(int shift, int hash, Object key, Object value);
+
+        /** @return null when the node has become empty */
+        abstract Node delete(int shift, int hash, Object key);
+
+        abstract Node map(Callable1<?, ?> transformer);
+
+        protected Object[] mapArray(Callable1<?, ?> transformer) {
+            Object[] result = new Object[array.length];
+            for (int i = 0; i < array.length; i += 2) {
+                Object key = array[i];
+                Object value = array[i + 1];
+                result[i] = key;
+                result[i + 1] = key == null ?
+                        ((Node) value).map(transformer) :
+                        Callers.call(Unchecked.<Callable1<Object, Object>>cast(transformer), value);
+            }
+            return result;
+        }
+    }
+
+    private static final class BitmapIndexedNode extends Node {
+        private final int bitmap;
+
+        private BitmapIndexedNode(int bitmap, Object[] array, int size) {
+            super(array, size);
+            this.bitmap = bitmap;
+        }
+
+        private int indexOf(int bit) {
+            return 2 * Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return NOT_FOUND;
+            int index = indexOf(bit);
+            Object existingKey = array[index];
+            Object existingValue = array[index + 1];
+            if (existingKey == null) return ((Node) existingValue).find(shift + BITS, hash, key);
+            if (key.equals(existingKey)) return existingValue;
+            return NOT_FOUND;
+        }
+
+        @Override
+        Node insert(int shift, int hash, Object key, Object value) {
+            int bit = bit(hash, shift);
+            int index = indexOf(bit);
+            if ((bitmap & bit) == 0)
+                return new BitmapIndexedNode(bitmap | bit, insertPair(array, index, key, value), size + 1);
+
+            Object existingKey = array[index];
+            Object existingValue = array[index + 1];
+            if (existingKey == null) {
+                Node child = (Node) existingValue;
+                Node newChild = child.insert(shift + BITS, hash, key, value);
+                if (newChild == child) return this;
+                return new BitmapIndexedNode(bitmap, copy(array, index + 1, newChild), size - child.size + newChild.size);
+            }
+            if (key.equals(existingKey)) {
+                if (existingValue == value) return this;
+                return new BitmapIndexedNode(bitmap, copy(array, index + 1, value), size);
+            }
+            Object[] newArray = copy(array, index, null);
+            newArray[index + 1] = node(shift + BITS, existingKey, existingValue, hash, key, value);
+            return new BitmapIndexedNode(bitmap, newArray, size + 1);
+        }
+
+        @Override
+        Node delete(int shift, int hash, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+            int index = indexOf(bit);
+            Object existingKey = array[index];
+            Object existingValue = array[index + 1];
+            if (existingKey == null) {
+                Node child = (Node) existingValue;
+                Node newChild = child.delete(shift + BITS, hash, key);
+                if (newChild == child) return this;
+                if (newChild == null) return remove(bit, index);
+                if (newChild.size == 1) {
+                    Object[] single = singleEntry(newChild);
+                    Object[] newArray = copy(array, index, single[0]);
+                    newArray[index + 1] = single[1];
+                    return new BitmapIndexedNode(bitmap, newArray, size - 1);
+                }
+                return new BitmapIndexedNode(bitmap, copy(array, index + 1, newChild), size - 1);
+            }
+            if (key.equals(existingKey)) return remove(bit, index);
+            return this;
+        }
+
+        private Node remove(int bit, int index) {
+            if (bitmap == bit) return null;
+            return new BitmapIndexedNode(bitmap ^ bit, removePair(array, index), size - 1);
+        }
+
+        private static Object[] singleEntry(Node node) {
+            Object[] array = node.array;
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) return singleEntry((Node) array[i + 1]);
+                return new Object[]{array[i], array[i + 1]};
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        Node map(Callable1<?, ?> transformer) {
+            return new BitmapIndexedNode(bitmap, mapArray(transformer), size);
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+        private final int hash;
+
+        private CollisionNode(int hash, Object[] array) {
+            super(array, array.length / 2);
+            this.hash = hash;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) return i;
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int shift, int hash, Object key) {
+            int index = indexOf(key);
+            if (index < 0) return NOT_FOUND;
+            return array[index + 1];
+        }
+
+        @Override
+        Node insert(int shift, int hash, Object key, Object value) {
+            if (hash != this.hash)
+                return new BitmapIndexedNode(bit(this.hash, shift), new Object[]{null, this}, size).insert(shift, hash, key, value);
+            int index = indexOf(key);
+            if (index < 0) return new CollisionNode(hash, insertPair(array, array.length, key, value));
+            if (array[index + 1] == value) return this;
+            return new CollisionNode(hash, copy(array, index + 1, value));
+        }
+
+        @Override
+        Node delete(int shift, int hash, Object key) {
+            int index = indexOf(key);
+            if (index < 0) return this;
+            if (size == 1) return null;
+            return new CollisionNode(hash, removePair(array, index));
+        }
+
+        @Override
+        Node map(Callable1<?, ?> transformer) {
+            return new CollisionNode(hash, mapArray(transformer));
+        }
+    }
+
+    private static final class NodeIterator<K, V> extends StatefulIterator<Pair<K, V>> {
+        private static final int MAX_DEPTH = 32 / BITS + 2;
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] indexes = new int[MAX_DEPTH];
+        private int depth = 0;
+
+        private NodeIterator(Node root) {
+            arrays[0] = root.array;
+        }
+
+        @Override
+        protected Pair<K, V> getNext() throws Exception {
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int index = indexes[depth];
+                if (index >= array.length) {
+                    depth--;
+                    continue;
+                }
+                indexes[depth] = index + 2;
+                Object key = array[index];
+                Object value = array[index + 1];
+                if (key == null) {
+                    depth++;
+                    arrays[depth] = ((Node) value).array;
+                    indexes[depth] = 0;
+                    continue;
+                }
+                return pair(Unchecked.<K>cast(key), Unchecked.<V>cast(value));
+            }
+            return finished();
+        }
+    }
+}
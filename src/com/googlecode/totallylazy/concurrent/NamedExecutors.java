@@ -2,6 +2,7 @@ package com.googlecode.totallylazy.concurrent;
 
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 
@@ -50,6 +51,14 @@ public class NamedExecutors {
         return Executors.newCachedThreadPool(namedThreadFactory(creatingClass));
     }
 
+    public static ExecutorService newWorkStealingPool(int parallelism, String name) {
+        return new ForkJoinPool(parallelism, new NamedWorkerThreadFactory(name), null, true);
+    }
+
+    public static ExecutorService newWorkStealingPool(int parallelism, Class<?> creatingClass) {
+        return newWorkStealingPool(parallelism, creatingClass.getName());
+    }
+
     public static ScheduledExecutorService newSingleThreadScheduledExecutor(String name) {
         return Executors.newSingleThreadScheduledExecutor(namedThreadFactory(name));
     }
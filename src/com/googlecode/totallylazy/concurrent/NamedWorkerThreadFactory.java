@@ -0,0 +1,27 @@
+package com.googlecode.totallylazy.concurrent;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static java.lang.String.format;
+
+public class NamedWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+    private final String name;
+    private final ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory;
+
+    public NamedWorkerThreadFactory(String name, ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory) {
+        this.threadFactory = threadFactory;
+        this.name = name;
+    }
+
+    public NamedWorkerThreadFactory(String name) {
+        this(name, ForkJoinPool.defaultForkJoinWorkerThreadFactory);
+    }
+
+    @Override
+    public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = threadFactory.newThread(pool);
+        thread.setName(format("%s: %s", name, thread.getName()));
+        return thread;
+    }
+}
@@ -0,0 +1,74 @@
+package com.googlecode.totallylazy.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Process wide executor used by Callers and the *Concurrently methods on Sequence.
+ * <p/>
+ * Created on first use: virtual threads when the runtime has them (disable with
+ * -Dtotallylazy.concurrent.virtual.threads=false) otherwise a work stealing ForkJoinPool
+ * sized by -Dtotallylazy.concurrent.parallelism (defaults to the number of processors).
+ */
+public final class SharedExecutor {
+    private static final Object lock = new Object();
+    private static volatile ExecutorService executor;
+    private static boolean owned;
+
+    private SharedExecutor() {}
+
+    // Only takes the lock to create the default executor
+    public static ExecutorService sharedExecutor() {
+        ExecutorService result = executor;
+        if (result != null) return result;
+        synchronized (lock) {
+            if (executor == null) {
+                executor = newDefaultExecutor();
+                owned = true;
+            }
+            return executor;
+        }
+    }
+
+    /**
+     * Replaces the shared executor. The caller keeps ownership of the executor passed in, a previously created default
+     * executor is shut down.
+     */
+    public static void sharedExecutor(ExecutorService newExecutor) {
+        synchronized (lock) {
+            shutdown();
+            executor = newExecutor;
+            owned = false;
+        }
+    }
+
+    /**
+     * Shuts down the default executor (if it was created by this class) and forgets the current one so the next
+     * call to {@link #sharedExecutor()} starts a new default executor.
+     */
+    public static void shutdown() {
+        synchronized (lock) {
+            if (executor != null && owned) executor.shutdown();
+            executor = null;
+            owned = false;
+        }
+    }
+
+    public static ExecutorService newDefaultExecutor() {
+        if (Boolean.parseBoolean(System.getProperty("totallylazy.concurrent.virtual.threads", "true"))) {
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+            if (virtual != null) return virtual;
+        }
+        return NamedExecutors.newWorkStealingPool(Integer.getInteger("totallylazy.concurrent.parallelism", Runtime.getRuntime().availableProcessors()), SharedExecutor.class);
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
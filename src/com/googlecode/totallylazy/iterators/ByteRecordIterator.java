@@ -0,0 +1,96 @@
+package com.googlecode.totallylazy.iterators;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Splits an InputStream into records on the encoded delimiter before decoding, so each record is decoded straight
+ * out of a single byte buffer (grown only for records longer than it) into its String.
+ * <p/>
+ * The delimiter's bytes must not be able to appear inside another character, and each record must decode on its
+ * own, so only UTF-8, US-ASCII and ISO-8859-1 are supported: not UTF-16 (byte order marks, bytes of other
+ * characters) or multi byte charsets such as Shift_JIS and GBK. The stream is closed once the last record has been
+ * read.
+ */
+public class ByteRecordIterator extends StatefulIterator<String> {
+    private static final int BUFFER_SIZE = 8192;
+    private final InputStream stream;
+    private final byte[] delimiter;
+    private final Charset charset;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean end;
+
+    private ByteRecordIterator(InputStream stream, byte[] delimiter, Charset charset) {
+        this.stream = stream;
+        this.delimiter = delimiter;
+        this.charset = charset;
+    }
+
+    public static boolean supports(Charset charset) {
+        return charset.equals(UTF_8) || charset.equals(US_ASCII) || charset.equals(ISO_8859_1);
+    }
+
+    public static ByteRecordIterator delimited(InputStream stream, String delimiter, Charset charset) {
+        if (delimiter.isEmpty()) throw new IllegalArgumentException("Delimiter can not be empty");
+        if (!supports(charset)) throw new IllegalArgumentException("Can not split " + charset + " on bytes");
+        return new ByteRecordIterator(stream, delimiter.getBytes(charset), charset);
+    }
+
+    @Override
+    protected String getNext() throws Exception {
+        int scanned = 0;
+        while (true) {
+            int found = indexOfDelimiter(position + scanned);
+            if (found >= 0) {
+                String record = new String(buffer, position, found - position, charset);
+                position = found + delimiter.length;
+                return record;
+            }
+            if (end) return last();
+            scanned = Math.max(0, limit - position - delimiter.length + 1);
+            fill();
+        }
+    }
+
+    private String last() throws IOException {
+        if (position == limit) {
+            stream.close();
+            return finished();
+        }
+        String record = new String(buffer, position, limit - position, charset);
+        position = limit;
+        return record;
+    }
+
+    private int indexOfDelimiter(int from) {
+        byte first = delimiter[0];
+        for (int i = from, last = limit - delimiter.length; i <= last; i++) {
+            if (buffer[i] != first) continue;
+            int matched = 1;
+            while (matched < delimiter.length && buffer[i + matched] == delimiter[matched]) matched++;
+            if (matched == delimiter.length) return i;
+        }
+        return -1;
+    }
+
+    // Moves what is left to the front (growing the buffer when it is all one record) and reads more after it
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        int read = stream.read(buffer, limit, buffer.length - limit);
+        if (read == -1) end = true;
+        else limit += read;
+    }
+}
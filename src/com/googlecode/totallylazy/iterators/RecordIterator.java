@@ -0,0 +1,143 @@
+package com.googlecode.totallylazy.iterators;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Splits a Reader into records, either on a (possibly multi character) delimiter or every width characters,
+ * reading through a single char buffer that only grows for records longer than it.
+ * <p/>
+ * Each record is a view over that buffer, and the same view is reused: it is only valid until the iterator next
+ * moves. Call toString() on it to keep it. The reader is closed once the last record has been read.
+ */
+public class RecordIterator extends StatefulIterator<CharSequence> {
+    private static final int BUFFER_SIZE = 8192;
+    private final Reader reader;
+    private final char[] delimiter;
+    private final int width;
+    private final View view = new View();
+    private char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean end;
+
+    private RecordIterator(Reader reader, char[] delimiter, int width) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.width = width;
+    }
+
+    public static RecordIterator delimited(Reader reader, String delimiter) {
+        if (delimiter.isEmpty()) throw new IllegalArgumentException("Delimiter can not be empty");
+        return new RecordIterator(reader, delimiter.toCharArray(), 0);
+    }
+
+    public static RecordIterator fixedWidth(Reader reader, int width) {
+        if (width < 1) throw new IllegalArgumentException("Width must be positive: " + width);
+        return new RecordIterator(reader, null, width);
+    }
+
+    @Override
+    protected CharSequence getNext() throws Exception {
+        return delimiter == null ? fixed() : delimited();
+    }
+
+    private CharSequence delimited() throws IOException {
+        int scanned = 0;
+        while (true) {
+            int found = indexOfDelimiter(position + scanned);
+            if (found >= 0) {
+                view.set(buffer, position, found);
+                position = found + delimiter.length;
+                return view;
+            }
+            if (end) return last();
+            scanned = Math.max(0, limit - position - delimiter.length + 1);
+            fill();
+        }
+    }
+
+    private CharSequence fixed() throws IOException {
+        while (limit - position < width && !end) fill();
+        if (limit - position < width) return last();
+        view.set(buffer, position, position + width);
+        position += width;
+        return view;
+    }
+
+    private CharSequence last() throws IOException {
+        if (position == limit) {
+            reader.close();
+            return finished();
+        }
+        view.set(buffer, position, limit);
+        position = limit;
+        return view;
+    }
+
+    private int indexOfDelimiter(int from) {
+        char first = delimiter[0];
+        for (int i = from, last = limit - delimiter.length; i <= last; i++) {
+            if (buffer[i] != first) continue;
+            int matched = 1;
+            while (matched < delimiter.length && buffer[i + matched] == delimiter[matched]) matched++;
+            if (matched == delimiter.length) return i;
+        }
+        return -1;
+    }
+
+    // Moves what is left to the front (growing the buffer when it is all one record) and reads more after it
+    private void fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read == -1) end = true;
+        else limit += read;
+    }
+
+    private static class View implements CharSequence {
+        private char[] buffer;
+        private int start;
+        private int end;
+
+        private View() {
+        }
+
+        private View(char[] buffer, int start, int end) {
+            set(buffer, start, end);
+        }
+
+        private void set(char[] buffer, int start, int end) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length()) throw new IndexOutOfBoundsException(String.valueOf(index));
+            return buffer[start + index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length() || start > end) throw new IndexOutOfBoundsException(start + ", " + end);
+            return new View(buffer, this.start + start, this.start + end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(buffer, start, end - start);
+        }
+    }
+}
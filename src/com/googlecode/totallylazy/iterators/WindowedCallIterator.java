@@ -0,0 +1,58 @@
+package com.googlecode.totallylazy.iterators;
+
+import com.googlecode.totallylazy.Callers;
+import com.googlecode.totallylazy.Unchecked;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Submits at most maxInFlight of the underlying callables at a time, topping the window up as results are consumed,
+ * so memory stays flat however long (or infinite) the source is.
+ * Results come back in source order, or in completion order when not ordered.
+ */
+public class WindowedCallIterator<T> extends StatefulIterator<T> {
+    private final Iterator<? extends Callable<? extends T>> callables;
+    private final Executor executor;
+    private final int maxInFlight;
+    private final boolean ordered;
+    private final Deque<Future<T>> inFlight = new ArrayDeque<Future<T>>();
+    private final BlockingQueue<Future<T>> completed = new LinkedBlockingQueue<Future<T>>();
+    private int pending = 0;
+
+    public WindowedCallIterator(Iterator<? extends Callable<? extends T>> callables, Executor executor, int maxInFlight, boolean ordered) {
+        if (maxInFlight < 1) throw new IllegalArgumentException("maxInFlight must be greater than zero");
+        this.callables = callables;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.ordered = ordered;
+    }
+
+    @Override
+    protected T getNext() throws Exception {
+        while (pending < maxInFlight && callables.hasNext()) submit(callables.next());
+        if (pending == 0) return finished();
+        pending--;
+        Future<T> future = ordered ? inFlight.removeFirst() : completed.take();
+        return Callers.<T>realiseFuture().call(future);
+    }
+
+    private void submit(final Callable<? extends T> callable) {
+        FutureTask<T> task = new FutureTask<T>(Unchecked.<Callable<T>>cast(callable)) {
+            @Override
+            protected void done() {
+                if (!ordered) completed.add(this);
+            }
+        };
+        if (ordered) inFlight.addLast(task);
+        pending++;
+        executor.execute(task);
+    }
+}
@@ -3,9 +3,12 @@ package com.googlecode.totallylazy.json;
 import com.googlecode.totallylazy.Mapper;
 import com.googlecode.totallylazy.Pair;
 import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
 import com.googlecode.totallylazy.parser.Result;
 
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.Writer;
 import java.util.List;
 import java.util.Map;
 
@@ -16,24 +19,52 @@ public class Json {
         return JsonWriter.write(value, new StringBuilder()).toString();
     }
 
+    public static <W extends Writer> W json(Object value, W writer) {
+        return json(value, writer, JsonWriter.DEFAULT_FLUSH_SIZE);
+    }
+
+    public static <W extends Writer> W json(Object value, W writer, int flushSize) {
+        return JsonWriter.write(value, writer, flushSize);
+    }
+
+    public static <S extends OutputStream> S json(Object value, S stream) {
+        return json(value, stream, JsonWriter.DEFAULT_FLUSH_SIZE);
+    }
+
+    public static <S extends OutputStream> S json(Object value, S stream, int flushSize) {
+        return JsonWriter.write(value, stream, flushSize);
+    }
+
     public static <V> Map<String, V> map(String json) {
-        return Json.<V>parseMap(json).value();
+        return cast(parser(json).map());
     }
 
     public static <V> List<V> list(String json) {
-        return Json.<V>parseList(json).value();
+        return cast(parser(json).list());
     }
 
     public static Object object(String json) {
-        return parseObject(json).value();
+        return parser(json).value();
     }
 
+    /**
+     * Reads the pairs of a top level object as they are iterated, holding only the read buffer and the current pair.
+     * The sequence can only be traversed once.
+     */
     public static <V> Sequence<Pair<String, V>> pairs(Reader json) {
-        return Json.<V>parsePairs(json).value();
+        return cast(Sequences.forwardOnly(JsonParser.parser(JsonTokenizer.tokenizer(json)).pairs()));
     }
 
+    /**
+     * Reads the elements of a top level array as they are iterated, holding only the read buffer and the current
+     * element. The sequence can only be traversed once.
+     */
     public static <V> Sequence<V> sequence(Reader json) {
-        return Json.<V>parseSequence(json).value();
+        return cast(Sequences.forwardOnly(JsonParser.parser(JsonTokenizer.tokenizer(json)).elements()));
+    }
+
+    private static JsonParser parser(String json) {
+        return JsonParser.parser(JsonTokenizer.tokenizer(json));
     }
 
     public static <V> Result<Map<String, V>> parseMap(String json) {
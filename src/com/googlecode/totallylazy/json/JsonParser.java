@@ -0,0 +1,159 @@
+package com.googlecode.totallylazy.json;
+
+import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.iterators.StatefulIterator;
+import com.googlecode.totallylazy.json.JsonTokenizer.Token;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the same values as {@link Grammar} (LinkedHashMap, ArrayList, String, BigDecimal, Boolean and null)
+ * from a {@link JsonTokenizer} without backtracking.
+ * <p/>
+ * With primitive numbers, integers are read as Long and anything with a fraction or exponent as Double;
+ * integers that do not fit in a long remain BigDecimal.
+ */
+public class JsonParser {
+    private final JsonTokenizer tokenizer;
+    private final boolean primitiveNumbers;
+
+    private JsonParser(JsonTokenizer tokenizer, boolean primitiveNumbers) {
+        this.tokenizer = tokenizer;
+        this.primitiveNumbers = primitiveNumbers;
+    }
+
+    public static JsonParser parser(JsonTokenizer tokenizer) {
+        return parser(tokenizer, false);
+    }
+
+    public static JsonParser parser(JsonTokenizer tokenizer, boolean primitiveNumbers) {
+        return new JsonParser(tokenizer, primitiveNumbers);
+    }
+
+    public Object value() {
+        Token token = tokenizer.peek();
+        switch (token) {
+            case ObjectStart: return map();
+            case ArrayStart: return list();
+            case Text: tokenizer.next(); return tokenizer.text();
+            case Digits: tokenizer.next(); return number(tokenizer.text());
+            case True: tokenizer.next(); return Boolean.TRUE;
+            case False: tokenizer.next(); return Boolean.FALSE;
+            case Null: tokenizer.next(); return null;
+            default: throw tokenizer.unexpected("JSON value");
+        }
+    }
+
+    public Map<String, Object> map() {
+        expect(Token.ObjectStart, "'{'");
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        if (tokenizer.peek() == Token.ObjectEnd) {
+            tokenizer.next();
+            return map;
+        }
+        do {
+            expect(Token.Text, "'\"'");
+            String key = tokenizer.text();
+            expect(Token.Colon, "':'");
+            map.put(key, value());
+        } while (separated(Token.ObjectEnd, "'}'"));
+        return map;
+    }
+
+    public List<Object> list() {
+        expect(Token.ArrayStart, "'['");
+        List<Object> list = new ArrayList<Object>();
+        if (tokenizer.peek() == Token.ArrayEnd) {
+            tokenizer.next();
+            return list;
+        }
+        do {
+            list.add(value());
+        } while (separated(Token.ArrayEnd, "']'"));
+        return list;
+    }
+
+    /**
+     * Lazily reads the elements of an array, pulling from the tokenizer only as the iterator is advanced.
+     */
+    public Iterator<Object> elements() {
+        expect(Token.ArrayStart, "'['");
+        return new StatefulIterator<Object>() {
+            private boolean first = true;
+
+            @Override
+            protected Object getNext() throws Exception {
+                if (!first) return separated(Token.ArrayEnd, "']'") ? value() : finished();
+                first = false;
+                if (tokenizer.peek() != Token.ArrayEnd) return value();
+                tokenizer.next();
+                return finished();
+            }
+        };
+    }
+
+    /**
+     * Lazily reads the pairs of an object, pulling from the tokenizer only as the iterator is advanced.
+     */
+    public Iterator<Pair<String, Object>> pairs() {
+        expect(Token.ObjectStart, "'{'");
+        return new StatefulIterator<Pair<String, Object>>() {
+            private boolean first = true;
+
+            @Override
+            protected Pair<String, Object> getNext() throws Exception {
+                if (!first) return separated(Token.ObjectEnd, "'}'") ? pair() : finished();
+                first = false;
+                if (tokenizer.peek() != Token.ObjectEnd) return pair();
+                tokenizer.next();
+                return finished();
+            }
+        };
+    }
+
+    private Pair<String, Object> pair() {
+        expect(Token.Text, "'\"'");
+        String key = tokenizer.text();
+        expect(Token.Colon, "':'");
+        return Pair.pair(key, value());
+    }
+
+    private Number number(String text) {
+        if (!primitiveNumbers) return new BigDecimal(text);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '.' || c == 'e' || c == 'E') return Double.parseDouble(text);
+        }
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return new BigDecimal(text);
+        }
+    }
+
+    // Allows one trailing separator before the end, as Grammar's sepBy does
+    private boolean separated(Token end, String expected) {
+        Token token = tokenizer.peek();
+        if (token == Token.Comma) {
+            tokenizer.next();
+            if (tokenizer.peek() != end) return true;
+            tokenizer.next();
+            return false;
+        }
+        if (token == end) {
+            tokenizer.next();
+            return false;
+        }
+        throw tokenizer.unexpected("',' or " + expected);
+    }
+
+    private void expect(Token token, String expected) {
+        if (tokenizer.peek() != token) throw tokenizer.unexpected(expected);
+        tokenizer.next();
+    }
+}
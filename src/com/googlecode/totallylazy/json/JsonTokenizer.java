@@ -0,0 +1,220 @@
+package com.googlecode.totallylazy.json;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import static com.googlecode.totallylazy.LazyException.lazyException;
+import static java.lang.String.format;
+
+/**
+ * A hand written pull lexer for JSON that reads straight out of a char buffer.
+ * <p/>
+ * Strings and numbers are copied out of the buffer once, when their token is read; only strings with escapes
+ * go through a StringBuilder. When reading from a Reader the buffer is refilled (and grown only for tokens
+ * longer than the buffer) as tokens are pulled.
+ */
+public class JsonTokenizer {
+    public enum Token {ObjectStart, ObjectEnd, ArrayStart, ArrayEnd, Colon, Comma, Text, Digits, True, False, Null, End}
+
+    private static final int BUFFER_SIZE = 8192;
+    private final Reader reader;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private int mark = -1;
+    private Token peeked;
+    private String text;
+    private StringBuilder builder;
+
+    private JsonTokenizer(Reader reader, char[] buffer, int position, int limit) {
+        this.reader = reader;
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    public static JsonTokenizer tokenizer(char[] json) {
+        return new JsonTokenizer(null, json, 0, json.length);
+    }
+
+    public static JsonTokenizer tokenizer(CharSequence json) {
+        if (json instanceof String) return tokenizer(((String) json).toCharArray());
+        char[] chars = new char[json.length()];
+        for (int i = 0; i < chars.length; i++) chars[i] = json.charAt(i);
+        return tokenizer(chars);
+    }
+
+    public static JsonTokenizer tokenizer(Reader reader) {
+        return new JsonTokenizer(reader, new char[BUFFER_SIZE], 0, 0);
+    }
+
+    public Token peek() {
+        if (peeked == null) peeked = read();
+        return peeked;
+    }
+
+    public Token next() {
+        Token token = peek();
+        peeked = null;
+        return token;
+    }
+
+    /**
+     * The unescaped value of the last Text token or the literal of the last Digits token
+     */
+    public String text() {
+        return text;
+    }
+
+    public IllegalArgumentException unexpected(String expected) {
+        return new IllegalArgumentException(format("%s expected, %s encountered.", expected, encountered()));
+    }
+
+    private String encountered() {
+        if (peeked != null) return peeked == Token.End ? "end of input" : peeked.name();
+        return available() ? "'" + buffer[position] + "'" : "end of input";
+    }
+
+    private Token read() {
+        if (!skipWhitespace()) return Token.End;
+        char c = buffer[position];
+        switch (c) {
+            case '{': position++; return Token.ObjectStart;
+            case '}': position++; return Token.ObjectEnd;
+            case '[': position++; return Token.ArrayStart;
+            case ']': position++; return Token.ArrayEnd;
+            case ':': position++; return Token.Colon;
+            case ',': position++; return Token.Comma;
+            case '"': position++; text = string(); return Token.Text;
+            case 't': literal("true"); return Token.True;
+            case 'f': literal("false"); return Token.False;
+            case 'n': literal("null"); return Token.Null;
+            default:
+                if (isNumber(c)) {
+                    text = number();
+                    return Token.Digits;
+                }
+                throw unexpected("JSON value");
+        }
+    }
+
+    private boolean skipWhitespace() {
+        while (available()) {
+            if (!Character.isWhitespace(buffer[position])) return true;
+            position++;
+        }
+        return false;
+    }
+
+    private void literal(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (!available() || buffer[position] != literal.charAt(i)) throw unexpected("'" + literal + "'");
+            position++;
+        }
+    }
+
+    private static boolean isNumber(char c) {
+        return (c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '-' || c == '+';
+    }
+
+    private String number() {
+        mark = position;
+        while (available() && isNumber(buffer[position])) position++;
+        return release();
+    }
+
+    private String string() {
+        mark = position;
+        while (true) {
+            if (!available()) throw unexpected("'\"'");
+            char c = buffer[position];
+            if (c == '"') {
+                String result = release();
+                position++;
+                return result;
+            }
+            if (c == '\\') return escapedString();
+            position++;
+        }
+    }
+
+    private String escapedString() {
+        StringBuilder builder = builder();
+        builder.append(buffer, mark, position - mark);
+        mark = -1;
+        while (true) {
+            if (!available()) throw unexpected("'\"'");
+            char c = buffer[position++];
+            if (c == '"') return builder.toString();
+            if (c == '\\') builder.append(escape());
+            else builder.append(c);
+        }
+    }
+
+    private char escape() {
+        if (!available()) throw unexpected("escaped character");
+        char c = buffer[position++];
+        switch (c) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u': return unicode();
+            default:
+                position--;
+                throw unexpected("escaped character");
+        }
+    }
+
+    private char unicode() {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = available() ? Character.digit(buffer[position], 16) : -1;
+            if (digit < 0) throw unexpected("hex digit");
+            value = (value << 4) + digit;
+            position++;
+        }
+        return (char) value;
+    }
+
+    private StringBuilder builder() {
+        if (builder == null) builder = new StringBuilder();
+        builder.setLength(0);
+        return builder;
+    }
+
+    private String release() {
+        String result = new String(buffer, mark, position - mark);
+        mark = -1;
+        return result;
+    }
+
+    private boolean available() {
+        return position < limit || fill();
+    }
+
+    // Keeps everything from the mark (the start of the current token) and reads as much as fits after it
+    private boolean fill() {
+        if (reader == null) return false;
+        int keep = mark < 0 ? position : mark;
+        int remaining = limit - keep;
+        char[] target = remaining == buffer.length ? new char[buffer.length * 2] : buffer;
+        System.arraycopy(buffer, keep, target, 0, remaining);
+        buffer = target;
+        position -= keep;
+        limit = remaining;
+        if (mark >= 0) mark = 0;
+        try {
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read <= 0) return false;
+            limit += read;
+            return true;
+        } catch (IOException e) {
+            throw lazyException(e);
+        }
+    }
+}
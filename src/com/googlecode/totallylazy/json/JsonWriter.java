@@ -1,85 +1,199 @@
 package com.googlecode.totallylazy.json;
 
-import com.googlecode.totallylazy.Iterators;
-import com.googlecode.totallylazy.Mapper;
-import com.googlecode.totallylazy.annotations.multimethod;
-import com.googlecode.totallylazy.multi;
+import com.googlecode.totallylazy.OutputStreamAppendable;
 import com.googlecode.totallylazy.time.Dates;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.concurrent.Callable;
 
-import static com.googlecode.totallylazy.Appendables.append;
+import static com.googlecode.totallylazy.LazyException.lazyException;
 
+/**
+ * Writes values straight into the Appendable. The writer for each runtime class is worked out once and kept in a
+ * ClassValue: CharSequences are strings, Maps objects, Map.Entries (so Pairs) "key":value, Iterables and Iterators
+ * arrays, Numbers and Booleans as they are, Dates RFC 3339 strings, null null and anything else its toString().
+ * <p/>
+ * Iterables (so lazy Sequences) and Iterators are pulled an element at a time, so when writing to a Writer or
+ * OutputStream only flushSize characters or bytes are held before being written and flushed, however many there are.
+ */
 public class JsonWriter {
     public static final String SEPARATOR = ",";
+    public static final int DEFAULT_FLUSH_SIZE = OutputStreamAppendable.DEFAULT_FLUSH_THRESHOLD;
+
+    private interface ValueWriter {
+        void write(Object value, Appendable appendable) throws IOException;
+    }
+
+    private static final ClassValue<ValueWriter> writers = new ClassValue<ValueWriter>() {
+        @Override
+        protected ValueWriter computeValue(Class<?> type) {
+            if (CharSequence.class.isAssignableFrom(type)) return (value, appendable) -> string((CharSequence) value, appendable);
+            if (Map.class.isAssignableFrom(type)) return (value, appendable) -> map((Map<?, ?>) value, appendable);
+            if (Map.Entry.class.isAssignableFrom(type)) return (value, appendable) -> entry((Map.Entry<?, ?>) value, appendable);
+            if (Iterable.class.isAssignableFrom(type)) return (value, appendable) -> array(((Iterable<?>) value).iterator(), appendable);
+            if (Iterator.class.isAssignableFrom(type)) return (value, appendable) -> array((Iterator<?>) value, appendable);
+            if (Number.class.isAssignableFrom(type) || Boolean.class == type) return (value, appendable) -> appendable.append(value.toString());
+            if (Date.class.isAssignableFrom(type)) return (value, appendable) -> date((Date) value, appendable);
+            return (value, appendable) -> string(value.toString(), appendable);
+        }
+    };
 
-    private static multi multi;
     public static <A extends Appendable> A write(final Object o, final A appendable) {
-        if(multi == null) multi = new multi(){};
-        return multi.<A>methodOption(o, appendable).getOrElse(new Callable<A>() {
-            @Override
-            public A call() throws Exception {
-                return write(o.toString(), appendable);
-            }
-        });
+        try {
+            value(o, appendable);
+            return appendable;
+        } catch (IOException e) {
+            throw lazyException(e);
+        }
+    }
+
+    public static <W extends Writer> W write(final Object o, final W writer, final int flushSize) {
+        try {
+            FlushingWriter appendable = new FlushingWriter(writer, flushSize);
+            value(o, appendable);
+            appendable.flush();
+            return writer;
+        } catch (IOException e) {
+            throw lazyException(e);
+        }
+    }
+
+    /**
+     * Writes UTF-8, writing and flushing every flushSize bytes
+     */
+    public static <S extends OutputStream> S write(final Object o, final S stream, final int flushSize) {
+        try {
+            OutputStreamAppendable appendable = OutputStreamAppendable.outputStreamAppendable(stream, flushSize);
+            value(o, appendable);
+            appendable.finish();
+            return stream;
+        } catch (IOException e) {
+            throw lazyException(e);
+        }
     }
 
-    @multimethod
     public static <A extends Appendable> A write(final CharSequence charSequence, final A appendable) {
-        return append(Strings.toString(charSequence), appendable);
+        return write((Object) charSequence, appendable);
     }
 
-    @multimethod
     public static <A extends Appendable> A write(final Iterator<?> iterator, final A appendable) {
-        return iterate(iterator, appendable, "[", SEPARATOR, "]");
+        return write((Object) iterator, appendable);
     }
 
-    @multimethod
     public static <A extends Appendable> A write(final Iterable<?> iterable, final A appendable) {
-        if(iterable instanceof Map) return write((Map) iterable, appendable);
-        return write(iterable.iterator(), appendable);
+        return write((Object) iterable, appendable);
     }
 
-    @multimethod
     public static <A extends Appendable> A write(final Map<?, ?> map, final A appendable) {
-        return iterate(map.entrySet().iterator(), appendable, "{", SEPARATOR, "}");
+        return write((Object) map, appendable);
     }
 
-    @multimethod
     public static <A extends Appendable> A write(final Map.Entry<?, ?> entry, final A appendable) {
-        return write(entry.getValue(), append(':', append(Strings.toString(String.valueOf(entry.getKey())), appendable)));
+        return write((Object) entry, appendable);
     }
 
-    @multimethod
     public static <A extends Appendable> A write(final Void aVoid, final A appendable) {
-        return append("null", appendable);
+        return write((Object) aVoid, appendable);
     }
 
-    @multimethod
     public static <A extends Appendable> A write(final Number number, final A appendable) {
-        return append(number.toString(), appendable);
+        return write((Object) number, appendable);
     }
 
-    @multimethod
     public static <A extends Appendable> A write(final Date date, final A appendable) {
-        return append(Strings.quote(Dates.RFC3339withMilliseconds().format(date)), appendable);
+        return write((Object) date, appendable);
     }
 
-    @multimethod
     public static <A extends Appendable> A write(final Boolean bool, final A appendable) {
-        return append(bool.toString(), appendable);
+        return write((Object) bool, appendable);
+    }
+
+    private static void value(Object value, Appendable appendable) throws IOException {
+        if (value == null) appendable.append("null");
+        else writers.get(value.getClass()).write(value, appendable);
+    }
+
+    private static void map(Map<?, ?> map, Appendable appendable) throws IOException {
+        appendable.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) appendable.append(SEPARATOR);
+            first = false;
+            entry(entry, appendable);
+        }
+        appendable.append('}');
+    }
+
+    private static void entry(Map.Entry<?, ?> entry, Appendable appendable) throws IOException {
+        string(String.valueOf(entry.getKey()), appendable);
+        appendable.append(':');
+        value(entry.getValue(), appendable);
+    }
+
+    private static void array(Iterator<?> iterator, Appendable appendable) throws IOException {
+        appendable.append('[');
+        boolean first = true;
+        while (iterator.hasNext()) {
+            if (!first) appendable.append(SEPARATOR);
+            first = false;
+            value(iterator.next(), appendable);
+        }
+        appendable.append(']');
+    }
+
+    private static void date(Date date, Appendable appendable) throws IOException {
+        appendable.append('"').append(Dates.RFC3339withMilliseconds().format(date)).append('"');
+    }
+
+    // Escapes as Strings.escape does, appending the runs in between as they are
+    private static void string(CharSequence value, Appendable appendable) throws IOException {
+        appendable.append('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String escaped = Strings.escaped(value.charAt(i));
+            if (escaped == null) continue;
+            appendable.append(value, start, i).append(escaped);
+            start = i + 1;
+        }
+        appendable.append(value, start, value.length()).append('"');
     }
 
-    private static <A extends Appendable> A iterate(final Iterator<?> iterator, final A appendable, String start, String separator, String end) {
-        return Iterators.appendTo(Iterators.map(iterator, new Mapper<Object, String>() {
-            @Override
-            public String call(Object o) throws Exception {
-                write(o, appendable);
-                return "";
-            }
-        }), appendable, start, separator, end);
+    private static class FlushingWriter implements Appendable {
+        private final Writer writer;
+        private final char[] buffer;
+        private int size;
+
+        private FlushingWriter(Writer writer, int flushSize) {
+            this.writer = writer;
+            this.buffer = new char[Math.max(flushSize, 1)];
+        }
+
+        @Override
+        public Appendable append(CharSequence characters) throws IOException {
+            return append(characters, 0, characters.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence characters, int start, int end) throws IOException {
+            for (int i = start; i < end; i++) append(characters.charAt(i));
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            buffer[size++] = c;
+            if (size == buffer.length) flush();
+            return this;
+        }
+
+        private void flush() throws IOException {
+            writer.write(buffer, 0, size);
+            writer.flush();
+            size = 0;
+        }
     }
 }
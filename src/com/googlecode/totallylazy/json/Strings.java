@@ -16,6 +16,14 @@ public class Strings {
     }
 
     public static String escape(Character character) {
+        String escaped = escaped(character);
+        return escaped == null ? character.toString() : escaped;
+    }
+
+    /**
+     * The escape sequence for the character, or null when it doesn't need escaping
+     */
+    public static String escaped(char character) {
         switch (character) {
             case '"': return "\\\"";
             case '\\': return "\\\\";
@@ -23,7 +31,7 @@ public class Strings {
             case '\n': return "\\n";
             case '\r': return "\\r";
             case '\t': return "\\t";
-            default: return character.toString();
+            default: return null;
         }
     }
 
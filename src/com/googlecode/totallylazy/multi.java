@@ -4,7 +4,6 @@ import com.googlecode.totallylazy.annotations.multimethod;
 
 import java.lang.reflect.Method;
 
-import static com.googlecode.totallylazy.Dispatcher.dispatcher;
 import static com.googlecode.totallylazy.Methods.methodName;
 import static com.googlecode.totallylazy.Predicates.and;
 import static com.googlecode.totallylazy.Predicates.is;
@@ -15,22 +14,38 @@ import static com.googlecode.totallylazy.Reflection.enclosingInstance;
 import static java.lang.reflect.Modifier.isStatic;
 
 public abstract class multi {
+    private static final Predicate<Method> annotated = Predicates.<Method, multimethod>where(Methods.annotation(multimethod.class), notNullValue());
+    private static final ClassValue<Method> enclosingMethods = new ClassValue<Method>() {
+        @Override
+        protected Method computeValue(Class<?> type) {
+            return type.getEnclosingMethod();
+        }
+    };
+    private static final ClassValue<Predicate<Method>> annotatedMethods = new ClassValue<Predicate<Method>>() {
+        @Override
+        protected Predicate<Method> computeValue(Class<?> type) {
+            return methodsLike(enclosingMethods.get(type), annotated);
+        }
+    };
     private final Dispatcher dispatcher;
 
     protected multi(Predicate<? super Method> predicate) {
         Method enclosing = enclosing();
         Object instance = instance(enclosing);
-        Class<?> aClass = declaringClass(enclosing, instance);
-        String name = enclosing.getName();
-
-        this.dispatcher = Dispatcher.dispatcher(aClass, instance,
-                and(where(methodName(), is(name)),
-                        not(enclosing),
-                        predicate));
+        this.dispatcher = Dispatcher.dispatcher(declaringClass(enclosing, instance), instance, methodsLike(enclosing, predicate));
     }
 
+    // Every default multi created at the same call site selects the same methods, so they share one dispatch cache
     protected multi() {
-        this(Predicates.<Method, multimethod>where(Methods.annotation(multimethod.class), notNullValue()));
+        Method enclosing = enclosing();
+        Object instance = instance(enclosing);
+        this.dispatcher = Dispatcher.dispatcher(declaringClass(enclosing, instance), instance, enclosing, annotatedMethods.get(getClass()));
+    }
+
+    private static Predicate<Method> methodsLike(Method enclosing, Predicate<? super Method> predicate) {
+        return and(where(methodName(), is(enclosing.getName())),
+                not(enclosing),
+                predicate);
     }
 
     public <T> T method(Object... args) {
@@ -41,7 +56,7 @@ public abstract class multi {
         return dispatcher.invokeOption(args);
     }
 
-    private Method enclosing() {return getClass().getEnclosingMethod();}
+    private Method enclosing() {return enclosingMethods.get(getClass());}
 
     private Class<?> declaringClass(Method method, Object instance) {
         return isStatic(method.getModifiers()) ? method.getDeclaringClass() : instance.getClass();
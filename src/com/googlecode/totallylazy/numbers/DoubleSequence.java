@@ -0,0 +1,276 @@
+package com.googlecode.totallylazy.numbers;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.iterators.ReadOnlyIterator;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+
+/**
+ * A lazy sequence of unboxed doubles: map, filter, fold and the aggregates never allocate a Number per element.
+ * Use {@link #boxed()} to get back to a Sequence&lt;Number&gt; and Sequence.mapToDouble to come the other way.
+ */
+public abstract class DoubleSequence implements Iterable<Double> {
+    public abstract PrimitiveIterator.OfDouble iterator();
+
+    public static DoubleSequence doubles(final double... values) {
+        return new DoubleSequence() {
+            @Override
+            public PrimitiveIterator.OfDouble iterator() {
+                return new PrimitiveIterator.OfDouble() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (hasNext()) return values[index++];
+                        throw new NoSuchElementException();
+                    }
+                };
+            }
+        };
+    }
+
+    public static DoubleSequence doubles(final Iterable<? extends Number> numbers) {
+        if (numbers instanceof DoubleSequence) return (DoubleSequence) numbers;
+        return new DoubleSequence() {
+            @Override
+            public PrimitiveIterator.OfDouble iterator() {
+                final Iterator<? extends Number> iterator = numbers.iterator();
+                return new PrimitiveIterator.OfDouble() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        return iterator.next().doubleValue();
+                    }
+                };
+            }
+        };
+    }
+
+    public DoubleSequence map(final DoubleUnaryOperator operator) {
+        return new DoubleSequence() {
+            @Override
+            public PrimitiveIterator.OfDouble iterator() {
+                final PrimitiveIterator.OfDouble iterator = DoubleSequence.this.iterator();
+                return new PrimitiveIterator.OfDouble() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        return operator.applyAsDouble(iterator.nextDouble());
+                    }
+                };
+            }
+        };
+    }
+
+    public IntSequence mapToInt(final DoubleToIntFunction function) {
+        return new IntSequence() {
+            @Override
+            public PrimitiveIterator.OfInt iterator() {
+                final PrimitiveIterator.OfDouble iterator = DoubleSequence.this.iterator();
+                return new PrimitiveIterator.OfInt() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        return function.applyAsInt(iterator.nextDouble());
+                    }
+                };
+            }
+        };
+    }
+
+    public LongSequence mapToLong(final DoubleToLongFunction function) {
+        return new LongSequence() {
+            @Override
+            public PrimitiveIterator.OfLong iterator() {
+                final PrimitiveIterator.OfDouble iterator = DoubleSequence.this.iterator();
+                return new PrimitiveIterator.OfLong() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        return function.applyAsLong(iterator.nextDouble());
+                    }
+                };
+            }
+        };
+    }
+
+    public <R> Sequence<R> mapToObj(final DoubleFunction<? extends R> function) {
+        return new Sequence<R>() {
+            @Override
+            public Iterator<R> iterator() {
+                final PrimitiveIterator.OfDouble iterator = DoubleSequence.this.iterator();
+                return new ReadOnlyIterator<R>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public R next() {
+                        return function.apply(iterator.nextDouble());
+                    }
+                };
+            }
+        };
+    }
+
+    public Sequence<Number> boxed() {
+        return mapToObj(new DoubleFunction<Number>() {
+            @Override
+            public Number apply(double value) {
+                return value;
+            }
+        });
+    }
+
+    public DoubleSequence filter(final DoublePredicate predicate) {
+        return new DoubleSequence() {
+            @Override
+            public PrimitiveIterator.OfDouble iterator() {
+                final PrimitiveIterator.OfDouble iterator = DoubleSequence.this.iterator();
+                return new PrimitiveIterator.OfDouble() {
+                    private boolean ready;
+                    private double next;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (!ready && iterator.hasNext()) {
+                            next = iterator.nextDouble();
+                            ready = predicate.test(next);
+                        }
+                        return ready;
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        ready = false;
+                        return next;
+                    }
+                };
+            }
+        };
+    }
+
+    public DoubleSequence take(final int count) {
+        return new DoubleSequence() {
+            @Override
+            public PrimitiveIterator.OfDouble iterator() {
+                final PrimitiveIterator.OfDouble iterator = DoubleSequence.this.iterator();
+                return new PrimitiveIterator.OfDouble() {
+                    private int remaining = count;
+
+                    @Override
+                    public boolean hasNext() {
+                        return remaining > 0 && iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        remaining--;
+                        return iterator.nextDouble();
+                    }
+                };
+            }
+        };
+    }
+
+    public double fold(final double seed, final DoubleBinaryOperator operator) {
+        double accumulator = seed;
+        PrimitiveIterator.OfDouble iterator = iterator();
+        while (iterator.hasNext()) accumulator = operator.applyAsDouble(accumulator, iterator.nextDouble());
+        return accumulator;
+    }
+
+    public double reduce(final DoubleBinaryOperator operator) {
+        PrimitiveIterator.OfDouble iterator = iterator();
+        double accumulator = iterator.nextDouble();
+        while (iterator.hasNext()) accumulator = operator.applyAsDouble(accumulator, iterator.nextDouble());
+        return accumulator;
+    }
+
+    public double sum() {
+        double sum = 0;
+        PrimitiveIterator.OfDouble iterator = iterator();
+        while (iterator.hasNext()) sum += iterator.nextDouble();
+        return sum;
+    }
+
+    public Option<Double> min() {
+        PrimitiveIterator.OfDouble iterator = iterator();
+        if (!iterator.hasNext()) return none();
+        double result = iterator.nextDouble();
+        while (iterator.hasNext()) result = Math.min(result, iterator.nextDouble());
+        return some(result);
+    }
+
+    public Option<Double> max() {
+        PrimitiveIterator.OfDouble iterator = iterator();
+        if (!iterator.hasNext()) return none();
+        double result = iterator.nextDouble();
+        while (iterator.hasNext()) result = Math.max(result, iterator.nextDouble());
+        return some(result);
+    }
+
+    public int size() {
+        int size = 0;
+        PrimitiveIterator.OfDouble iterator = iterator();
+        while (iterator.hasNext()) {
+            iterator.nextDouble();
+            size++;
+        }
+        return size;
+    }
+
+    public double[] toArray() {
+        double[] result = new double[16];
+        int size = 0;
+        PrimitiveIterator.OfDouble iterator = iterator();
+        while (iterator.hasNext()) {
+            if (size == result.length) result = Arrays.copyOf(result, size * 2);
+            result[size++] = iterator.nextDouble();
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    @Override
+    public String toString() {
+        return Sequences.toString(this);
+    }
+}
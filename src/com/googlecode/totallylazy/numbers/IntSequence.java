@@ -0,0 +1,314 @@
+package com.googlecode.totallylazy.numbers;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.iterators.ReadOnlyIterator;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntUnaryOperator;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+
+/**
+ * A lazy sequence of unboxed ints: map, filter, fold and the aggregates never allocate a Number per element.
+ * Use {@link #boxed()} to get back to a Sequence&lt;Number&gt; and Sequence.mapToInt to come the other way.
+ */
+public abstract class IntSequence implements Iterable<Integer> {
+    public abstract PrimitiveIterator.OfInt iterator();
+
+    public static IntSequence ints(final int... values) {
+        return new IntSequence() {
+            @Override
+            public PrimitiveIterator.OfInt iterator() {
+                return new PrimitiveIterator.OfInt() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (hasNext()) return values[index++];
+                        throw new NoSuchElementException();
+                    }
+                };
+            }
+        };
+    }
+
+    public static IntSequence ints(final Iterable<? extends Number> numbers) {
+        if (numbers instanceof IntSequence) return (IntSequence) numbers;
+        return new IntSequence() {
+            @Override
+            public PrimitiveIterator.OfInt iterator() {
+                final Iterator<? extends Number> iterator = numbers.iterator();
+                return new PrimitiveIterator.OfInt() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        return iterator.next().intValue();
+                    }
+                };
+            }
+        };
+    }
+
+    public static IntSequence range(final int start) {
+        return range(start, Integer.MAX_VALUE);
+    }
+
+    public static IntSequence range(final int start, final int end) {
+        return range(start, end, end < start ? -1 : 1);
+    }
+
+    public static IntSequence range(final int start, final int end, final int step) {
+        if (step == 0) throw new IllegalArgumentException("step can not be zero");
+        return new IntSequence() {
+            @Override
+            public PrimitiveIterator.OfInt iterator() {
+                return new PrimitiveIterator.OfInt() {
+                    private int next = start;
+                    private boolean more = step > 0 ? start <= end : start >= end;
+
+                    @Override
+                    public boolean hasNext() {
+                        return more;
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (!more) throw new NoSuchElementException();
+                        int current = next;
+                        next = current + step;
+                        more = step > 0 ? next > current && next <= end : next < current && next >= end;
+                        return current;
+                    }
+                };
+            }
+        };
+    }
+
+    public IntSequence map(final IntUnaryOperator operator) {
+        return new IntSequence() {
+            @Override
+            public PrimitiveIterator.OfInt iterator() {
+                final PrimitiveIterator.OfInt iterator = IntSequence.this.iterator();
+                return new PrimitiveIterator.OfInt() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        return operator.applyAsInt(iterator.nextInt());
+                    }
+                };
+            }
+        };
+    }
+
+    public LongSequence mapToLong(final IntToLongFunction function) {
+        return new LongSequence() {
+            @Override
+            public PrimitiveIterator.OfLong iterator() {
+                final PrimitiveIterator.OfInt iterator = IntSequence.this.iterator();
+                return new PrimitiveIterator.OfLong() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        return function.applyAsLong(iterator.nextInt());
+                    }
+                };
+            }
+        };
+    }
+
+    public DoubleSequence mapToDouble(final IntToDoubleFunction function) {
+        return new DoubleSequence() {
+            @Override
+            public PrimitiveIterator.OfDouble iterator() {
+                final PrimitiveIterator.OfInt iterator = IntSequence.this.iterator();
+                return new PrimitiveIterator.OfDouble() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        return function.applyAsDouble(iterator.nextInt());
+                    }
+                };
+            }
+        };
+    }
+
+    public <R> Sequence<R> mapToObj(final IntFunction<? extends R> function) {
+        return new Sequence<R>() {
+            @Override
+            public Iterator<R> iterator() {
+                final PrimitiveIterator.OfInt iterator = IntSequence.this.iterator();
+                return new ReadOnlyIterator<R>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public R next() {
+                        return function.apply(iterator.nextInt());
+                    }
+                };
+            }
+        };
+    }
+
+    public Sequence<Number> boxed() {
+        return mapToObj(new IntFunction<Number>() {
+            @Override
+            public Number apply(int value) {
+                return value;
+            }
+        });
+    }
+
+    public IntSequence filter(final IntPredicate predicate) {
+        return new IntSequence() {
+            @Override
+            public PrimitiveIterator.OfInt iterator() {
+                final PrimitiveIterator.OfInt iterator = IntSequence.this.iterator();
+                return new PrimitiveIterator.OfInt() {
+                    private boolean ready;
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (!ready && iterator.hasNext()) {
+                            next = iterator.nextInt();
+                            ready = predicate.test(next);
+                        }
+                        return ready;
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        ready = false;
+                        return next;
+                    }
+                };
+            }
+        };
+    }
+
+    public IntSequence take(final int count) {
+        return new IntSequence() {
+            @Override
+            public PrimitiveIterator.OfInt iterator() {
+                final PrimitiveIterator.OfInt iterator = IntSequence.this.iterator();
+                return new PrimitiveIterator.OfInt() {
+                    private int remaining = count;
+
+                    @Override
+                    public boolean hasNext() {
+                        return remaining > 0 && iterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        remaining--;
+                        return iterator.nextInt();
+                    }
+                };
+            }
+        };
+    }
+
+    public int fold(final int seed, final IntBinaryOperator operator) {
+        int accumulator = seed;
+        PrimitiveIterator.OfInt iterator = iterator();
+        while (iterator.hasNext()) accumulator = operator.applyAsInt(accumulator, iterator.nextInt());
+        return accumulator;
+    }
+
+    public int reduce(final IntBinaryOperator operator) {
+        PrimitiveIterator.OfInt iterator = iterator();
+        int accumulator = iterator.nextInt();
+        while (iterator.hasNext()) accumulator = operator.applyAsInt(accumulator, iterator.nextInt());
+        return accumulator;
+    }
+
+    /**
+     * Accumulates into a long so summing ints does not overflow.
+     */
+    public long sum() {
+        long sum = 0;
+        PrimitiveIterator.OfInt iterator = iterator();
+        while (iterator.hasNext()) sum += iterator.nextInt();
+        return sum;
+    }
+
+    public Option<Integer> min() {
+        PrimitiveIterator.OfInt iterator = iterator();
+        if (!iterator.hasNext()) return none();
+        int result = iterator.nextInt();
+        while (iterator.hasNext()) result = Math.min(result, iterator.nextInt());
+        return some(result);
+    }
+
+    public Option<Integer> max() {
+        PrimitiveIterator.OfInt iterator = iterator();
+        if (!iterator.hasNext()) return none();
+        int result = iterator.nextInt();
+        while (iterator.hasNext()) result = Math.max(result, iterator.nextInt());
+        return some(result);
+    }
+
+    public int size() {
+        int size = 0;
+        PrimitiveIterator.OfInt iterator = iterator();
+        while (iterator.hasNext()) {
+            iterator.nextInt();
+            size++;
+        }
+        return size;
+    }
+
+    public int[] toArray() {
+        int[] result = new int[16];
+        int size = 0;
+        PrimitiveIterator.OfInt iterator = iterator();
+        while (iterator.hasNext()) {
+            if (size == result.length) result = Arrays.copyOf(result, size * 2);
+            result[size++] = iterator.nextInt();
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    @Override
+    public String toString() {
+        return Sequences.toString(this);
+    }
+}
@@ -0,0 +1,314 @@
+package com.googlecode.totallylazy.numbers;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.iterators.ReadOnlyIterator;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+
+/**
+ * A lazy sequence of unboxed longs: map, filter, fold and the aggregates never allocate a Number per element.
+ * Use {@link #boxed()} to get back to a Sequence&lt;Number&gt; and Sequence.mapToLong to come the other way.
+ */
+public abstract class LongSequence implements Iterable<Long> {
+    public abstract PrimitiveIterator.OfLong iterator();
+
+    public static LongSequence longs(final long... values) {
+        return new LongSequence() {
+            @Override
+            public PrimitiveIterator.OfLong iterator() {
+                return new PrimitiveIterator.OfLong() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (hasNext()) return values[index++];
+                        throw new NoSuchElementException();
+                    }
+                };
+            }
+        };
+    }
+
+    public static LongSequence longs(final Iterable<? extends Number> numbers) {
+        if (numbers instanceof LongSequence) return (LongSequence) numbers;
+        return new LongSequence() {
+            @Override
+            public PrimitiveIterator.OfLong iterator() {
+                final Iterator<? extends Number> iterator = numbers.iterator();
+                return new PrimitiveIterator.OfLong() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        return iterator.next().longValue();
+                    }
+                };
+            }
+        };
+    }
+
+    public static LongSequence range(final long start) {
+        return range(start, Long.MAX_VALUE);
+    }
+
+    public static LongSequence range(final long start, final long end) {
+        return range(start, end, end < start ? -1 : 1);
+    }
+
+    public static LongSequence range(final long start, final long end, final long step) {
+        if (step == 0) throw new IllegalArgumentException("step can not be zero");
+        return new LongSequence() {
+            @Override
+            public PrimitiveIterator.OfLong iterator() {
+                return new PrimitiveIterator.OfLong() {
+                    private long next = start;
+                    private boolean more = step > 0 ? start <= end : start >= end;
+
+                    @Override
+                    public boolean hasNext() {
+                        return more;
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (!more) throw new NoSuchElementException();
+                        long current = next;
+                        next = current + step;
+                        more = step > 0 ? next > current && next <= end : next < current && next >= end;
+                        return current;
+                    }
+                };
+            }
+        };
+    }
+
+    public LongSequence map(final LongUnaryOperator operator) {
+        return new LongSequence() {
+            @Override
+            public PrimitiveIterator.OfLong iterator() {
+                final PrimitiveIterator.OfLong iterator = LongSequence.this.iterator();
+                return new PrimitiveIterator.OfLong() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        return operator.applyAsLong(iterator.nextLong());
+                    }
+                };
+            }
+        };
+    }
+
+    public IntSequence mapToInt(final LongToIntFunction function) {
+        return new IntSequence() {
+            @Override
+            public PrimitiveIterator.OfInt iterator() {
+                final PrimitiveIterator.OfLong iterator = LongSequence.this.iterator();
+                return new PrimitiveIterator.OfInt() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public int nextInt() {
+                        return function.applyAsInt(iterator.nextLong());
+                    }
+                };
+            }
+        };
+    }
+
+    public DoubleSequence mapToDouble(final LongToDoubleFunction function) {
+        return new DoubleSequence() {
+            @Override
+            public PrimitiveIterator.OfDouble iterator() {
+                final PrimitiveIterator.OfLong iterator = LongSequence.this.iterator();
+                return new PrimitiveIterator.OfDouble() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public double nextDouble() {
+                        return function.applyAsDouble(iterator.nextLong());
+                    }
+                };
+            }
+        };
+    }
+
+    public <R> Sequence<R> mapToObj(final LongFunction<? extends R> function) {
+        return new Sequence<R>() {
+            @Override
+            public Iterator<R> iterator() {
+                final PrimitiveIterator.OfLong iterator = LongSequence.this.iterator();
+                return new ReadOnlyIterator<R>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public R next() {
+                        return function.apply(iterator.nextLong());
+                    }
+                };
+            }
+        };
+    }
+
+    public Sequence<Number> boxed() {
+        return mapToObj(new LongFunction<Number>() {
+            @Override
+            public Number apply(long value) {
+                return value;
+            }
+        });
+    }
+
+    public LongSequence filter(final LongPredicate predicate) {
+        return new LongSequence() {
+            @Override
+            public PrimitiveIterator.OfLong iterator() {
+                final PrimitiveIterator.OfLong iterator = LongSequence.this.iterator();
+                return new PrimitiveIterator.OfLong() {
+                    private boolean ready;
+                    private long next;
+
+                    @Override
+                    public boolean hasNext() {
+                        while (!ready && iterator.hasNext()) {
+                            next = iterator.nextLong();
+                            ready = predicate.test(next);
+                        }
+                        return ready;
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        ready = false;
+                        return next;
+                    }
+                };
+            }
+        };
+    }
+
+    public LongSequence take(final int count) {
+        return new LongSequence() {
+            @Override
+            public PrimitiveIterator.OfLong iterator() {
+                final PrimitiveIterator.OfLong iterator = LongSequence.this.iterator();
+                return new PrimitiveIterator.OfLong() {
+                    private int remaining = count;
+
+                    @Override
+                    public boolean hasNext() {
+                        return remaining > 0 && iterator.hasNext();
+                    }
+
+                    @Override
+                    public long nextLong() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        remaining--;
+                        return iterator.nextLong();
+                    }
+                };
+            }
+        };
+    }
+
+    public long fold(final long seed, final LongBinaryOperator operator) {
+        long accumulator = seed;
+        PrimitiveIterator.OfLong iterator = iterator();
+        while (iterator.hasNext()) accumulator = operator.applyAsLong(accumulator, iterator.nextLong());
+        return accumulator;
+    }
+
+    public long reduce(final LongBinaryOperator operator) {
+        PrimitiveIterator.OfLong iterator = iterator();
+        long accumulator = iterator.nextLong();
+        while (iterator.hasNext()) accumulator = operator.applyAsLong(accumulator, iterator.nextLong());
+        return accumulator;
+    }
+
+    /**
+     * @throws ArithmeticException if the sum overflows a long
+     */
+    public long sum() {
+        long sum = 0;
+        PrimitiveIterator.OfLong iterator = iterator();
+        while (iterator.hasNext()) sum = Math.addExact(sum, iterator.nextLong());
+        return sum;
+    }
+
+    public Option<Long> min() {
+        PrimitiveIterator.OfLong iterator = iterator();
+        if (!iterator.hasNext()) return none();
+        long result = iterator.nextLong();
+        while (iterator.hasNext()) result = Math.min(result, iterator.nextLong());
+        return some(result);
+    }
+
+    public Option<Long> max() {
+        PrimitiveIterator.OfLong iterator = iterator();
+        if (!iterator.hasNext()) return none();
+        long result = iterator.nextLong();
+        while (iterator.hasNext()) result = Math.max(result, iterator.nextLong());
+        return some(result);
+    }
+
+    public int size() {
+        int size = 0;
+        PrimitiveIterator.OfLong iterator = iterator();
+        while (iterator.hasNext()) {
+            iterator.nextLong();
+            size++;
+        }
+        return size;
+    }
+
+    public long[] toArray() {
+        long[] result = new long[16];
+        int size = 0;
+        PrimitiveIterator.OfLong iterator = iterator();
+        while (iterator.hasNext()) {
+            if (size == result.length) result = Arrays.copyOf(result, size * 2);
+            result[size++] = iterator.nextLong();
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    @Override
+    public String toString() {
+        return Sequences.toString(this);
+    }
+}
@@ -231,19 +231,40 @@ public class Numbers {
     }
 
     private static Operators<? extends Number> internalOperatorsFor(Class<? extends Number> numberClass) {
-        if (numberClass == Short.class) return ShortOperators.Instance;
-        if (numberClass == Integer.class) return IntegerOperators.Instance;
-        if (numberClass == Long.class) return LongOperators.Instance;
-        if (numberClass == BigInteger.class) return BigIntegerOperators.Instance;
-        if (numberClass == BigDecimal.class) return BigDecimalOperators.Instance;
-        if (numberClass == Ratio.class) return RatioOperators.Instance;
-        if (numberClass == Float.class) return FloatOperators.Instance;
-        if (numberClass == Double.class) return DoubleOperators.Instance;
-        throw new UnsupportedOperationException("Unsupported number " + numberClass);
+        Operators<? extends Number> operators = classOperators.get(numberClass);
+        if (operators == null) throw new UnsupportedOperationException("Unsupported number " + numberClass);
+        return operators;
     }
 
+    // Resolved once per class rather than walking the chain of class checks on every call
+    private static final ClassValue<Operators<? extends Number>> classOperators = new ClassValue<Operators<? extends Number>>() {
+        @Override
+        protected Operators<? extends Number> computeValue(Class<?> numberClass) {
+            if (numberClass == Short.class) return ShortOperators.Instance;
+            if (numberClass == Integer.class) return IntegerOperators.Instance;
+            if (numberClass == Long.class) return LongOperators.Instance;
+            if (numberClass == BigInteger.class) return BigIntegerOperators.Instance;
+            if (numberClass == BigDecimal.class) return BigDecimalOperators.Instance;
+            if (numberClass == Ratio.class) return RatioOperators.Instance;
+            if (numberClass == Float.class) return FloatOperators.Instance;
+            if (numberClass == Double.class) return DoubleOperators.Instance;
+            return null;
+        }
+    };
+
+    private static final ClassValue<Operators<Number>> numOperators = new ClassValue<Operators<Number>>() {
+        @Override
+        protected Operators<Number> computeValue(Class<?> numberClass) {
+            return new NumOperator(operatorsFor(Unchecked.<Class<? extends Number>>cast(numberClass)));
+        }
+    };
+
     public static Operators<Number> operatorsFor(Number number) {
-        if(number instanceof Num) return new NumOperator(operatorsFor(((Num) number).value()));
+        if (number instanceof Num) {
+            Number value = ((Num) number).value();
+            if (value instanceof Num) return new NumOperator(operatorsFor(value));
+            return numOperators.get(value.getClass());
+        }
         return operatorsFor(number.getClass());
     }
 
@@ -254,6 +275,10 @@ public class Numbers {
         return aOperators.priority() > bOperators.priority() ? aOperators : bOperators;
     }
 
+    private static boolean both(Class<? extends Number> numberClass, Number x, Number y) {
+        return x.getClass() == numberClass && y.getClass() == numberClass;
+    }
+
     public static Number negate(Number value) {
         return operatorsFor(value).negate(value);
     }
@@ -269,6 +294,7 @@ public class Numbers {
     }
 
     public static Number increment(Number value) {
+        if (value.getClass() == Integer.class) return IntegerOperators.Instance.increment((Integer) value);
         return operatorsFor(value).increment(value);
     }
 
@@ -316,6 +342,8 @@ public class Numbers {
     }
 
     public static boolean equalTo(Number x, Number y) {
+        if (both(Integer.class, x, y)) return x.intValue() == y.intValue();
+        if (both(Long.class, x, y)) return x.longValue() == y.longValue();
         return operatorsFor(x, y).equalTo(x, y);
     }
 
@@ -324,6 +352,8 @@ public class Numbers {
     }
 
     public static boolean lessThan(Number x, Number y) {
+        if (both(Integer.class, x, y)) return x.intValue() < y.intValue();
+        if (both(Long.class, x, y)) return x.longValue() < y.longValue();
         return operatorsFor(x, y).lessThan(x, y);
     }
 
@@ -356,6 +386,8 @@ public class Numbers {
     }
 
     public static int compare(Number x, Number y) {
+        if (both(Integer.class, x, y)) return Integer.compare(x.intValue(), y.intValue());
+        if (both(Long.class, x, y)) return Long.compare(x.longValue(), y.longValue());
         Operators<Number> operators = operatorsFor(x, y);
         if (operators.lessThan(x, y)) return -1;
         if (operators.lessThan(y, x)) return 1;
@@ -409,6 +441,8 @@ public class Numbers {
     }
 
     public static Number add(Number x, Number y) {
+        if (both(Integer.class, x, y)) return IntegerOperators.Instance.add(x, y);
+        if (both(Long.class, x, y)) return LongOperators.Instance.add(x, y);
         return operatorsFor(x, y).add(x, y);
     }
 
@@ -427,6 +461,15 @@ public class Numbers {
     }
 
     public static Number subtract(Number x, Number y) {
+        if (both(Integer.class, x, y)) {
+            long result = x.longValue() - y.longValue();
+            return result == (int) result ? (Number) (int) result : (Number) result;
+        }
+        if (both(Long.class, x, y)) {
+            long lx = x.longValue(), ly = y.longValue(), result = lx - ly;
+            if (((lx ^ ly) & (lx ^ result)) < 0) return BigInteger.valueOf(lx).subtract(BigInteger.valueOf(ly));
+            return result;
+        }
         return operatorsFor(x, y).add(x, operatorsFor(y).negate(y));
     }
 
@@ -447,6 +490,8 @@ public class Numbers {
     }
 
     public static Number multiply(Number x, Number y) {
+        if (both(Integer.class, x, y)) return IntegerOperators.Instance.multiply(x, y);
+        if (both(Long.class, x, y)) return LongOperators.Instance.multiply(x, y);
         return operatorsFor(x, y).multiply(x, y);
     }
 
@@ -3,6 +3,9 @@ package com.googlecode.totallylazy.parser;
 import com.googlecode.totallylazy.Function1;
 import com.googlecode.totallylazy.Predicate;
 import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.util.Set;
 
 import static com.googlecode.totallylazy.Predicates.is;
 import static com.googlecode.totallylazy.Predicates.not;
@@ -10,9 +13,11 @@ import static com.googlecode.totallylazy.parser.Success.success;
 
 class CharacterParser extends Parser<Character> {
     private final Predicate<Character> predicate;
+    private final CharacterTable table;
 
     private CharacterParser(Predicate<Character> predicate) {
         this.predicate = predicate;
+        this.table = CharacterTable.table(predicate).getOrNull();
     }
 
     public static CharacterParser character(Predicate<Character> value) {
@@ -46,6 +51,7 @@ class CharacterParser extends Parser<Character> {
 
     @Override
     public Result<Character> parse(final Segment<Character> characters) {
+        if (characters instanceof Input) return parse((Input) characters);
         if(characters.isEmpty()) return fail(predicate, "[EOF]");
         Character c = characters.head();
         return predicate.matches(c) ?
@@ -53,6 +59,23 @@ class CharacterParser extends Parser<Character> {
                 fail(predicate, c);
     }
 
+    private Result<Character> parse(Input input) {
+        if (!input.has(0)) return fail(predicate, "[EOF]");
+        char c = input.charAt(0);
+        return matches(c) ?
+                success(c, input.drop(1)) :
+                fail(predicate, c);
+    }
+
+    boolean matches(char c) {
+        return table != null ? table.matches(c) : predicate.matches(c);
+    }
+
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return table;
+    }
+
     @Override
     public String toString() {
         return predicate.toString();
@@ -3,14 +3,19 @@ package com.googlecode.totallylazy.parser;
 import com.googlecode.totallylazy.Predicate;
 import com.googlecode.totallylazy.Segment;
 import com.googlecode.totallylazy.Strings;
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.util.Set;
 
 import static com.googlecode.totallylazy.parser.Success.success;
 
 public class CharactersParser extends Parser<CharSequence> {
     private final Predicate<Character> predicate;
+    private final CharacterTable table;
 
     private CharactersParser(Predicate<Character> predicate) {
         this.predicate = predicate;
+        this.table = CharacterTable.table(predicate).getOrNull();
     }
 
     public static CharactersParser characters(Predicate<Character> predicate) {return new CharactersParser(predicate);}
@@ -23,6 +28,7 @@ public class CharactersParser extends Parser<CharSequence> {
 
     @Override
     public Result<CharSequence> parse(Segment<Character> characters) {
+        if (characters instanceof Input) return parse((Input) characters);
         if(characters.isEmpty()) return fail(predicate, "");
         Segment<Character> segment = characters;
         StringBuilder result = new StringBuilder();
@@ -35,4 +41,21 @@ public class CharactersParser extends Parser<CharSequence> {
         if(result.length() == 0) return fail(predicate, characters.head());
         return success(result, segment);
     }
+
+    private Result<CharSequence> parse(Input input) {
+        if (!input.has(0)) return fail(predicate, "");
+        int count = 0;
+        while (input.has(count) && matches(input.charAt(count))) count++;
+        if (count == 0) return fail(predicate, input.charAt(0));
+        return success(input.text(count), input.drop(count));
+    }
+
+    private boolean matches(char c) {
+        return table != null ? table.matches(c) : predicate.matches(c);
+    }
+
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return table;
+    }
 }
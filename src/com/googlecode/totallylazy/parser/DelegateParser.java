@@ -1,6 +1,11 @@
 package com.googlecode.totallylazy.parser;
 
 import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.util.Set;
 
 public abstract class DelegateParser<A> extends Parser<A> {
     protected final Parser<A> delegate;
@@ -9,6 +14,16 @@ public abstract class DelegateParser<A> extends Parser<A> {
         this.delegate = delegate;
     }
 
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return Optimiser.first(delegate, visiting);
+    }
+
+    @Override
+    Sequence<Parse<?>> children() {
+        return Sequences.<Parse<?>>one(delegate);
+    }
+
     @Override
     public String toString() {
         return delegate.toString();
@@ -0,0 +1,163 @@
+package com.googlecode.totallylazy.parser;
+
+import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.segments.AbstractSegment;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.NoSuchElementException;
+
+import static com.googlecode.totallylazy.LazyException.lazyException;
+
+/**
+ * A position indexed Segment of characters over a char[] or CharSequence, or over blocks read from a Reader.
+ * <p/>
+ * Parsers with a char fast path use {@link #has(int)}, {@link #charAt(int)}, {@link #text(int)} and
+ * {@link #drop(int)} instead of walking head()/tail(); everything else sees an ordinary Segment.
+ * Reader blocks are chained lazily, so only the blocks still reachable from a live Input are retained.
+ */
+public final class Input extends AbstractSegment<Character> {
+    private final Block block;
+    private final int index;
+
+    private Input(Block block, int index) {
+        this.block = block;
+        this.index = index;
+    }
+
+    public static Input input(char[] characters) {
+        return new Input(new Block(characters, characters.length, null, 0), 0);
+    }
+
+    public static Input input(CharSequence characters) {
+        return input(characters.toString().toCharArray());
+    }
+
+    /**
+     * Reads ahead of the parser by up to a block, so the reader should not be shared with anything else
+     */
+    public static Input input(Reader reader) {
+        return new Input(new Block(new char[0], 0, reader, 0), 0);
+    }
+
+    public static Input input(Segment<Character> characters) {
+        if (characters instanceof Input) return (Input) characters;
+        return input(methods.toString(characters, ""));
+    }
+
+    /**
+     * The number of characters before this one since the start of the input
+     */
+    public int position() {
+        return block.offset + index;
+    }
+
+    public boolean has(int offset) {
+        Block current = block;
+        int i = index + offset;
+        while (i >= current.length) {
+            i -= current.length;
+            current = current.next();
+            if (current == null) return false;
+        }
+        return true;
+    }
+
+    public char charAt(int offset) {
+        Block current = block;
+        int i = index + offset;
+        while (i >= current.length) {
+            i -= current.length;
+            current = current.next();
+            if (current == null) throw new NoSuchElementException();
+        }
+        return current.characters[i];
+    }
+
+    public Input drop(int count) {
+        if (count == 0) return this;
+        Block current = block;
+        int i = index + count;
+        while (i > current.length) {
+            i -= current.length;
+            current = current.next();
+            if (current == null) throw new NoSuchElementException();
+        }
+        return new Input(current, i);
+    }
+
+    /**
+     * The next count characters as a String
+     */
+    public String text(int count) {
+        if (index + count <= block.length) return new String(block.characters, index, count);
+        StringBuilder builder = new StringBuilder(count);
+        for (int i = 0; i < count; i++) builder.append(charAt(i));
+        return builder.toString();
+    }
+
+    /**
+     * A CharSequence view of the rest of the input when it is already in memory (i.e. not read from a Reader)
+     */
+    CharSequence remaining() {
+        if (block.reader != null) return null;
+        return CharBuffer.wrap(block.characters, index, block.length - index);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !has(0);
+    }
+
+    @Override
+    public Character head() throws NoSuchElementException {
+        return charAt(0);
+    }
+
+    @Override
+    public Input tail() throws NoSuchElementException {
+        if (isEmpty()) throw new NoSuchElementException();
+        return drop(1);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; has(i); i++) builder.append(charAt(i));
+        return builder.toString();
+    }
+
+    private static final class Block {
+        private static final int SIZE = 4096;
+        private final char[] characters;
+        private final int length;
+        private final Reader reader;
+        private final int offset;
+        private Block next;
+        private boolean ended;
+
+        private Block(char[] characters, int length, Reader reader, int offset) {
+            this.characters = characters;
+            this.length = length;
+            this.reader = reader;
+            this.offset = offset;
+        }
+
+        // Each block holds what a single read returned, so a parser never waits on more input than it asks for
+        private Block next() {
+            if (next != null || reader == null || ended) return next;
+            try {
+                char[] buffer = new char[SIZE];
+                int read = reader.read(buffer);
+                if (read < 0) {
+                    ended = true;
+                    return null;
+                }
+                return next = new Block(buffer, read, reader, offset + length);
+            } catch (IOException e) {
+                throw lazyException(e);
+            }
+        }
+    }
+}
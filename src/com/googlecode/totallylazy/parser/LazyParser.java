@@ -2,7 +2,11 @@ package com.googlecode.totallylazy.parser;
 
 import com.googlecode.totallylazy.Lazy;
 import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.predicates.CharacterTable;
 
+import java.util.Set;
 import java.util.concurrent.Callable;
 
 class LazyParser<T> extends Parser<T> {
@@ -16,6 +20,16 @@ class LazyParser<T> extends Parser<T> {
         return new LazyParser<T>(Lazy.lazy(value));
     }
 
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return Optimiser.first(value.value(), visiting);
+    }
+
+    @Override
+    Sequence<Parse<?>> children() {
+        return Sequences.<Parse<?>>one(value.value());
+    }
+
     @Override
     public String toString() {
         return value.value().toString();
@@ -3,9 +3,11 @@ package com.googlecode.totallylazy.parser;
 import com.googlecode.totallylazy.Segment;
 import com.googlecode.totallylazy.Sequence;
 import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.predicates.CharacterTable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.Unchecked.cast;
@@ -22,6 +24,16 @@ class ListParser<A> extends Parser<List<A>> {
         return new ListParser<A>(Sequences.sequence(parsers));
     }
 
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return parsers.isEmpty() ? null : Optimiser.first(parsers.head(), visiting);
+    }
+
+    @Override
+    Sequence<Parse<?>> children() {
+        return cast(parsers);
+    }
+
     @Override
     public String toString() {
         return parsers.toString();
@@ -1,6 +1,9 @@
 package com.googlecode.totallylazy.parser;
 
 import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.Unchecked;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,6 +22,7 @@ class ManyParser<A> extends Parser<List<A>> {
     }
 
     public Result<List<A>> parse(Segment<Character> characters) {
+        if (characters instanceof Input && parser instanceof CharacterParser) return parse((Input) characters, (CharacterParser) parser);
         Segment<Character> segment = characters;
         List<A> list = new ArrayList<A>();
 
@@ -31,6 +35,24 @@ class ManyParser<A> extends Parser<List<A>> {
         return success(list, segment);
     }
 
+    // Scans the characters directly rather than creating a Result per character
+    private Result<List<A>> parse(Input input, CharacterParser parser) {
+        List<Character> list = new ArrayList<Character>();
+        int count = 0;
+        while (input.has(count)) {
+            char c = input.charAt(count);
+            if (!parser.matches(c)) break;
+            list.add(c);
+            count++;
+        }
+        return success(Unchecked.<List<A>>cast(list), input.drop(count));
+    }
+
+    @Override
+    Sequence<Parse<?>> children() {
+        return Sequences.<Parse<?>>one(parser);
+    }
+
     @Override
     public String toString() {
         return String.format("many %s", parser);
@@ -2,6 +2,11 @@ package com.googlecode.totallylazy.parser;
 
 import com.googlecode.totallylazy.Callable1;
 import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.util.Set;
 
 import static com.googlecode.totallylazy.Unchecked.cast;
 
@@ -23,6 +28,16 @@ class MappingParser<A, B> extends Parser<B> {
         return cast(source.parse(characters).map(callable));
     }
 
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return Optimiser.first(source, visiting);
+    }
+
+    @Override
+    Sequence<Parse<?>> children() {
+        return Sequences.<Parse<?>>one(source);
+    }
+
     @Override
     public String toString() {
         return String.format("%s %s", source, callable);
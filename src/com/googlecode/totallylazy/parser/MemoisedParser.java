@@ -0,0 +1,92 @@
+package com.googlecode.totallylazy.parser;
+
+import com.googlecode.totallylazy.Segment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.googlecode.totallylazy.Unchecked.cast;
+
+/**
+ * Caches the Result of its delegate per input position for the duration of one parse
+ * (see {@link Parsers#packrat(Parser)}), so alternatives that retry the same rule at the same position
+ * only parse it once. Hits and misses are counted across parses to show which rules are worth memoising.
+ */
+public class MemoisedParser<A> extends DelegateParser<A> {
+    private static final ThreadLocal<Map<Key, Result<?>>> results = new ThreadLocal<Map<Key, Result<?>>>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private MemoisedParser(Parser<A> delegate) {
+        super(delegate);
+    }
+
+    static <A> MemoisedParser<A> memoised(Parser<A> parser) {
+        return parser instanceof MemoisedParser ? (MemoisedParser<A>) parser : new MemoisedParser<A>(parser);
+    }
+
+    @Override
+    public Result<A> parse(Segment<Character> characters) {
+        Map<Key, Result<?>> table = results.get();
+        if (table == null) return packrat(this, characters);
+        Key key = new Key(this, characters);
+        Result<?> result = table.get(key);
+        if (result != null) {
+            hits.incrementAndGet();
+            return cast(result);
+        }
+        misses.incrementAndGet();
+        Result<A> parsed = delegate.parse(characters);
+        table.put(key, parsed);
+        return parsed;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public void reset() {
+        hits.set(0);
+        misses.set(0);
+    }
+
+    static <A> Result<A> packrat(Parse<A> parser, Segment<Character> characters) {
+        if (results.get() != null) return parser.parse(characters);
+        results.set(new HashMap<Key, Result<?>>());
+        try {
+            return parser.parse(characters);
+        } finally {
+            results.remove();
+        }
+    }
+
+    // Inputs are compared by position, any other Segment by identity (memoised Segments such as Computation share their tails)
+    private static final class Key {
+        private final MemoisedParser<?> parser;
+        private final Segment<Character> characters;
+        private final int position;
+
+        private Key(MemoisedParser<?> parser, Segment<Character> characters) {
+            this.parser = parser;
+            this.characters = characters instanceof Input ? null : characters;
+            this.position = characters instanceof Input ? ((Input) characters).position() : System.identityHashCode(characters);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(parser) + position;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return parser == key.parser && characters == key.characters && position == key.position;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.googlecode.totallylazy.parser;
+
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+class Optimiser {
+    static void optimise(Parse<?> root) {
+        Set<Parse<?>> visited = identitySet();
+        Deque<Parse<?>> remaining = new ArrayDeque<Parse<?>>();
+        remaining.push(root);
+        while (!remaining.isEmpty()) {
+            Parse<?> parse = remaining.pop();
+            if (!(parse instanceof Parser) || !visited.add(parse)) continue;
+            if (parse instanceof OrParser) ((OrParser<?>) parse).dispatch();
+            for (Parse<?> child : ((Parser<?>) parse).children()) remaining.push(child);
+        }
+    }
+
+    static CharacterTable first(Parse<?> parse) {
+        return first(parse, identitySet());
+    }
+
+    // A rule that refers back to itself before consuming anything is treated as unknown
+    static CharacterTable first(Parse<?> parse, Set<Parse<?>> visiting) {
+        if (!(parse instanceof Parser) || !visiting.add(parse)) return null;
+        try {
+            return ((Parser<?>) parse).first(visiting);
+        } finally {
+            visiting.remove(parse);
+        }
+    }
+
+    private static Set<Parse<?>> identitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<Parse<?>, Boolean>());
+    }
+}
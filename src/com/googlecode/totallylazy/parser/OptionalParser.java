@@ -2,6 +2,8 @@ package com.googlecode.totallylazy.parser;
 
 import com.googlecode.totallylazy.Option;
 import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
 
 import static com.googlecode.totallylazy.parser.Success.success;
 import static java.lang.String.format;
@@ -17,6 +19,11 @@ class OptionalParser<A> extends Parser<Option<A>> {
         return new OptionalParser<A>(parserA);
     }
 
+    @Override
+    Sequence<Parse<?>> children() {
+        return Sequences.<Parse<?>>one(parserA);
+    }
+
     @Override
     public String toString() {
         return format("optional(%s)", parserA.toString());
@@ -3,14 +3,22 @@ package com.googlecode.totallylazy.parser;
 import com.googlecode.totallylazy.Segment;
 import com.googlecode.totallylazy.Sequence;
 import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.util.List;
+import java.util.Set;
 
 import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.totallylazy.Unchecked.cast;
 
 class OrParser<A> extends Parser<A> {
     private final Sequence<Parse<A>> parsers;
+    private final List<Parse<A>> alternatives;
+    private volatile CharacterTable[] firsts;
 
     private OrParser(Sequence<Parse<A>> parsers) {
         this.parsers = parsers;
+        this.alternatives = parsers.toList();
     }
 
     static <A> OrParser<A> or(Iterable<? extends Parse<? extends A>> parsers) {
@@ -22,8 +30,32 @@ class OrParser<A> extends Parser<A> {
         return parsers.toString(" or ");
     }
 
+    void dispatch() {
+        CharacterTable[] firsts = new CharacterTable[alternatives.size()];
+        for (int i = 0; i < firsts.length; i++) firsts[i] = Optimiser.first(alternatives.get(i));
+        this.firsts = firsts;
+    }
+
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        CharacterTable result = null;
+        for (Parse<A> parser : parsers) {
+            CharacterTable first = Optimiser.first(parser, visiting);
+            if (first == null) return null;
+            result = result == null ? first : CharacterTable.union(result, first);
+        }
+        return result;
+    }
+
+    @Override
+    Sequence<Parse<?>> children() {
+        return cast(parsers);
+    }
+
     @Override
     public Result<A> parse(Segment<Character> characters) {
+        CharacterTable[] firsts = this.firsts;
+        if (firsts != null && !characters.isEmpty()) return dispatch(firsts, characters.head(), characters);
         Result<A> result = null;
         for (Parse<A> parser : parsers) {
             result = parser.parse(characters);
@@ -31,4 +63,16 @@ class OrParser<A> extends Parser<A> {
         }
         return result;
     }
+
+    // Skips alternatives that can not start with the next character, but always tries the last so a failure is the same
+    private Result<A> dispatch(CharacterTable[] firsts, char next, Segment<Character> characters) {
+        Result<A> result = null;
+        int last = firsts.length - 1;
+        for (int i = 0; i <= last; i++) {
+            if (i < last && firsts[i] != null && !firsts[i].matches(next)) continue;
+            result = alternatives.get(i).parse(characters);
+            if (result.success()) return result;
+        }
+        return result;
+    }
 }
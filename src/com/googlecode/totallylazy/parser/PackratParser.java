@@ -0,0 +1,14 @@
+package com.googlecode.totallylazy.parser;
+
+import com.googlecode.totallylazy.Segment;
+
+class PackratParser<A> extends DelegateParser<A> {
+    PackratParser(Parser<A> parser) {
+        super(parser);
+    }
+
+    @Override
+    public Result<A> parse(Segment<Character> characters) {
+        return MemoisedParser.packrat(delegate, characters);
+    }
+}
@@ -2,6 +2,11 @@ package com.googlecode.totallylazy.parser;
 
 import com.googlecode.totallylazy.Pair;
 import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.util.Set;
 
 import static com.googlecode.totallylazy.Unchecked.cast;
 import static com.googlecode.totallylazy.parser.Success.success;
@@ -30,6 +35,16 @@ class PairParser<A, B> extends Parser<Pair<A, B>> {
         return success(Pair.pair(resultA.value(), resultB.value()), resultB.remainder());
     }
 
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return Optimiser.first(parserA, visiting);
+    }
+
+    @Override
+    Sequence<Parse<?>> children() {
+        return Sequences.<Parse<?>>sequence(parserA, parserB);
+    }
+
     @Override
     public String toString() {
         return String.format("%s and %s", parserA, parserB);
@@ -11,11 +11,13 @@ import com.googlecode.totallylazy.Segment;
 import com.googlecode.totallylazy.Sequence;
 import com.googlecode.totallylazy.Sequences;
 import com.googlecode.totallylazy.Unary;
+import com.googlecode.totallylazy.predicates.CharacterTable;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.List;
+import java.util.Set;
 
 import static com.googlecode.totallylazy.Closeables.using;
 import static com.googlecode.totallylazy.Functions.function;
@@ -89,15 +91,19 @@ public abstract class Parser<A> implements Parse<A> {
     }
 
     public Result<A> parse(CharSequence value) {
-        return parse(characters(value));
+        return parse(Input.input(value));
     }
 
+    /**
+     * Reads only as many characters as the parser needs; use {@link Input#input(Reader)} to read ahead in blocks instead
+     */
     public Result<A> parse(Reader value) {
         return parse(characters(value));
     }
 
+    // The InputStreamReader already reads ahead of the stream, so nothing is lost by reading it in blocks
     public Result<A> parse(InputStream value) {
-        return parse(characters(new InputStreamReader(value, UTF8)));
+        return parse(Input.input(new InputStreamReader(value, UTF8)));
     }
 
     public Parser<Void> ignore() {
@@ -124,6 +130,27 @@ public abstract class Parser<A> implements Parse<A> {
         return times(min).then(many()).map(p -> join(p.first(), p.second()).toList());
     }
 
+    public MemoisedParser<A> memoised() {
+        return Parsers.memoised(this);
+    }
+
+    /**
+     * Lets every OrParser reachable from this one skip the alternatives that can not start with the next character
+     */
+    public Parser<A> optimise() {
+        Optimiser.optimise(this);
+        return this;
+    }
+
+    // The characters this parser can start with, or null when that is unknown or it can succeed without consuming any
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return null;
+    }
+
+    Sequence<Parse<?>> children() {
+        return Sequences.empty();
+    }
+
     public Parser<A> debug(String name) {
         return Parsers.debug(name, this);
     }
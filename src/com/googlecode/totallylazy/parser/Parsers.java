@@ -153,6 +153,17 @@ public class Parsers {
         return TripleParser.triple(before, parserB, after).map(Callables.<A>second());
     }
 
+    /**
+     * Shares one memo table between all the memoised rules of the grammar for each parse, clearing it afterwards
+     */
+    public static <T> Parser<T> packrat(Parser<T> grammar) {
+        return new PackratParser<>(grammar);
+    }
+
+    public static <T> MemoisedParser<T> memoised(Parser<T> parser) {
+        return MemoisedParser.memoised(parser);
+    }
+
     public static <T> Parser<T> debug(String name, Parser<T> parser) {
         return debug(System.out, name, parser);
     }
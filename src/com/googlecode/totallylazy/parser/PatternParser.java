@@ -36,12 +36,32 @@ class PatternParser extends Parser<String> {
 
     @Override
     public Result<String> parse(Segment<Character> characters) {
+        CharSequence remaining = characters instanceof Input ? ((Input) characters).remaining() : null;
+        if (remaining != null) return parse((Input) characters, remaining);
         CharacterSequence sequence = charSequence(characters);
         Matcher matcher = pattern.matcher(sequence);
         if (matches(matcher)) return success(matcher.group(), drop(matcher.end(), characters));
         return fail(toString(), sequence);
     }
 
+    private Result<String> parse(Input input, CharSequence remaining) {
+        Matcher matcher = pattern.matcher(remaining);
+        if (matcher.lookingAt()) return success(matcher.group(), input.drop(matcher.end()));
+        return fail(toString(), examined(input));
+    }
+
+    // Failures are frequent under an OrParser, so only work out what the pattern examined if the message is asked for
+    private Object examined(final Input input) {
+        return new Object() {
+            @Override
+            public String toString() {
+                CharacterSequence sequence = charSequence(input);
+                matches(pattern.matcher(sequence));
+                return sequence.toString();
+            }
+        };
+    }
+
     private boolean matches(Matcher matcher) {
         try {
             return matcher.lookingAt();
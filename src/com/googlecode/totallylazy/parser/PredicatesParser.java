@@ -4,6 +4,9 @@ import com.googlecode.totallylazy.Predicate;
 import com.googlecode.totallylazy.Segment;
 import com.googlecode.totallylazy.Sequence;
 import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.util.Set;
 
 import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.parser.Success.success;
@@ -37,6 +40,11 @@ class PredicatesParser extends Parser<String> {
         return success(result.toString(), segment);
     }
 
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return predicates.isEmpty() ? null : CharacterTable.table(predicates.head()).getOrNull();
+    }
+
     @Override
     public String toString() {
         return predicates.toString("");
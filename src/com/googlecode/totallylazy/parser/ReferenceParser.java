@@ -1,7 +1,11 @@
 package com.googlecode.totallylazy.parser;
 
 import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
+import com.googlecode.totallylazy.predicates.CharacterTable;
 
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class ReferenceParser<T> extends Parser<T> {
@@ -11,6 +15,16 @@ public class ReferenceParser<T> extends Parser<T> {
 
     public static <T> ReferenceParser<T> reference() {return new ReferenceParser<T>();}
 
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return Optimiser.first(value.get(), visiting);
+    }
+
+    @Override
+    Sequence<Parse<?>> children() {
+        return Sequences.<Parse<?>>one(value.get());
+    }
+
     @Override
     public String toString() {
         return value.get().toString();
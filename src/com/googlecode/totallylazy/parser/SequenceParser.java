@@ -3,6 +3,7 @@ package com.googlecode.totallylazy.parser;
 import com.googlecode.totallylazy.Callables;
 import com.googlecode.totallylazy.Segment;
 import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
 import com.googlecode.totallylazy.Unchecked;
 import com.googlecode.totallylazy.iterators.StatefulIterator;
 
@@ -47,6 +48,11 @@ class SequenceParser<A> extends Parser<Sequence<A>> {
         };
     }
 
+    @Override
+    Sequence<Parse<?>> children() {
+        return Sequences.<Parse<?>>one(parser);
+    }
+
     @Override
     public String toString() {
         return String.format("sequence %s", parser);
@@ -1,6 +1,9 @@
 package com.googlecode.totallylazy.parser;
 
 import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.util.Set;
 
 import static com.googlecode.totallylazy.parser.Success.success;
 
@@ -17,6 +20,7 @@ class StringParser extends Parser<String> {
 
     @Override
     public Result<String> parse(Segment<Character> characters) {
+        if (characters instanceof Input) return parse((Input) characters);
         Segment<Character> segment = characters;
         StringBuilder result = new StringBuilder();
         for (int i = 0, n = expected.length(); i < n; i++) {
@@ -30,6 +34,19 @@ class StringParser extends Parser<String> {
         return success(result.toString(), segment);
     }
 
+    private Result<String> parse(Input input) {
+        for (int i = 0, n = expected.length(); i < n; i++) {
+            if (!input.has(i)) return fail(expected, input.text(i));
+            if (expected.charAt(i) != input.charAt(i)) return fail(expected, input.text(i + 1));
+        }
+        return success(expected, input.drop(expected.length()));
+    }
+
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return expected.isEmpty() ? null : CharacterTable.among(expected.substring(0, 1));
+    }
+
     @Override
     public String toString() {
         return expected;
@@ -1,7 +1,12 @@
 package com.googlecode.totallylazy.parser;
 
 import com.googlecode.totallylazy.Segment;
+import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.Sequences;
 import com.googlecode.totallylazy.Triple;
+import com.googlecode.totallylazy.predicates.CharacterTable;
+
+import java.util.Set;
 
 import static com.googlecode.totallylazy.Unchecked.cast;
 
@@ -34,6 +39,16 @@ class TripleParser<A, B, C> extends Parser<Triple<A, B, C>> {
         return Success.success(Triple.triple(resultA.value(), resultB.value(), resultC.value()), resultC.remainder());
     }
 
+    @Override
+    CharacterTable first(Set<Parse<?>> visiting) {
+        return Optimiser.first(parserA, visiting);
+    }
+
+    @Override
+    Sequence<Parse<?>> children() {
+        return Sequences.<Parse<?>>sequence(parserA, parserB, parserC);
+    }
+
     @Override
     public String toString() {
         return String.format("%s and %s and %s", parserA, parserB, parserC);
@@ -0,0 +1,173 @@
+package com.googlecode.totallylazy.predicates;
+
+import com.googlecode.totallylazy.Option;
+import com.googlecode.totallylazy.Predicate;
+import com.googlecode.totallylazy.Unchecked;
+import com.googlecode.totallylazy.annotations.multimethod;
+
+import java.util.Arrays;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+
+/**
+ * A character class as a bit per char: bits covers the chars below bits.length * 64 and every char above that
+ * matches if rest is true, so small classes and their complements stay small.
+ * <p/>
+ * {@link #table(Predicate)} lowers Characters.between/among/notAmong/in(String), is(char) and and/or/not
+ * combinations of them to a single table. Tables made by {@link #characters(Predicate, String)} are only filled in
+ * on first use, so the ones held in static fields cost nothing until they are matched against.
+ */
+public final class CharacterTable extends LogicalPredicate<Character> {
+    private static final int CHARS = Character.MAX_VALUE + 1;
+    private final Predicate<? super Character> predicate;
+    private final boolean rest;
+    private final String description;
+    private volatile long[] bits;
+
+    private CharacterTable(long[] bits, boolean rest, String description) {
+        this.predicate = null;
+        this.bits = trim(bits, rest);
+        this.rest = rest;
+        this.description = description;
+    }
+
+    private CharacterTable(Predicate<? super Character> predicate, String description) {
+        this.predicate = predicate;
+        this.rest = predicate.matches(Character.MAX_VALUE);
+        this.description = description;
+    }
+
+    public static CharacterTable between(char start, char end) {
+        long[] bits = new long[words(end + 1)];
+        for (int c = start; c <= end; c++) set(bits, c);
+        return new CharacterTable(bits, false, "[" + start + "-" + end + "]");
+    }
+
+    public static CharacterTable among(String characters) {
+        int max = 0;
+        for (int i = 0; i < characters.length(); i++) max = Math.max(max, characters.charAt(i));
+        long[] bits = new long[words(max + 1)];
+        for (int i = 0; i < characters.length(); i++) set(bits, characters.charAt(i));
+        return new CharacterTable(bits, false, "[" + characters + "]");
+    }
+
+    /**
+     * Evaluates the predicate once for every char the first time the table is used, so it must not have side
+     * effects or state
+     */
+    public static CharacterTable characters(Predicate<? super Character> predicate, String description) {
+        return new CharacterTable(predicate, description);
+    }
+
+    public static Option<CharacterTable> table(Predicate<? super Character> predicate) {
+        if (predicate instanceof CharacterTable) return some((CharacterTable) predicate);
+        if (predicate instanceof EqualsPredicate) {
+            Object value = ((EqualsPredicate<?>) predicate).value();
+            if (!(value instanceof Character)) return none();
+            return some(among(value.toString()).describedAs(predicate.toString()));
+        }
+        if (predicate instanceof AlwaysTrue) return some(new CharacterTable(new long[0], true, predicate.toString()));
+        if (predicate instanceof AlwaysFalse) return some(new CharacterTable(new long[0], false, predicate.toString()));
+        if (predicate instanceof Not) {
+            Option<CharacterTable> table = table(Unchecked.<Not<Character>>cast(predicate).predicate());
+            return table.isEmpty() ? table : some(table.get().negate().describedAs(predicate.toString()));
+        }
+        if (predicate instanceof OrPredicate) return combine(Unchecked.<OrPredicate<Character>>cast(predicate).predicates(), true, predicate);
+        if (predicate instanceof AndPredicate) return combine(Unchecked.<AndPredicate<Character>>cast(predicate).predicates(), false, predicate);
+        return none();
+    }
+
+    private static Option<CharacterTable> combine(Iterable<? extends Predicate<Character>> predicates, boolean or, Predicate<?> original) {
+        CharacterTable result = null;
+        for (Predicate<Character> predicate : predicates) {
+            Option<CharacterTable> table = table(predicate);
+            if (table.isEmpty()) return none();
+            result = result == null ? table.get() : result.combine(table.get(), or);
+        }
+        return result == null ? Option.<CharacterTable>none() : some(result.describedAs(original.toString()));
+    }
+
+    public static CharacterTable union(CharacterTable a, CharacterTable b) {
+        return a.combine(b, true).describedAs(a + " or " + b);
+    }
+
+    public boolean matches(char c) {
+        long[] bits = bits();
+        int word = c >>> 6;
+        return word < bits.length ? (bits[word] & (1L << c)) != 0 : rest;
+    }
+
+    @Override
+    public boolean matches(Character other) {
+        return other != null && matches(other.charValue());
+    }
+
+    public CharacterTable negate() {
+        long[] bits = bits();
+        long[] negated = new long[bits.length];
+        for (int i = 0; i < bits.length; i++) negated[i] = ~bits[i];
+        return new CharacterTable(negated, !rest, "not " + description);
+    }
+
+    private CharacterTable combine(CharacterTable other, boolean or) {
+        long[] combined = new long[Math.max(bits().length, other.bits().length)];
+        for (int i = 0; i < combined.length; i++) {
+            long a = word(i), b = other.word(i);
+            combined[i] = or ? a | b : a & b;
+        }
+        return new CharacterTable(combined, or ? rest || other.rest : rest && other.rest, description);
+    }
+
+    private CharacterTable describedAs(String description) {
+        return new CharacterTable(bits(), rest, description);
+    }
+
+    // Racing threads may both fill in the table but end up with equal ones
+    private long[] bits() {
+        long[] result = bits;
+        if (result == null) bits = result = fill(predicate, rest);
+        return result;
+    }
+
+    private static long[] fill(Predicate<? super Character> predicate, boolean rest) {
+        long[] bits = new long[words(CHARS)];
+        for (int c = 0; c < CHARS; c++) if (predicate.matches((char) c)) set(bits, c);
+        return trim(bits, rest);
+    }
+
+    private long word(int index) {
+        long[] bits = bits();
+        return index < bits.length ? bits[index] : rest ? -1L : 0L;
+    }
+
+    private static int words(int chars) {
+        return (chars + 63) >>> 6;
+    }
+
+    private static void set(long[] bits, int c) {
+        bits[c >>> 6] |= 1L << c;
+    }
+
+    private static long[] trim(long[] bits, boolean rest) {
+        long fill = rest ? -1L : 0L;
+        int length = bits.length;
+        while (length > 0 && bits[length - 1] == fill) length--;
+        return length == bits.length ? bits : Arrays.copyOf(bits, length);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(bits()) + (rest ? 1 : 0);
+    }
+
+    @multimethod
+    public boolean equals(CharacterTable other) {
+        return rest == other.rest && Arrays.equals(bits(), other.bits());
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
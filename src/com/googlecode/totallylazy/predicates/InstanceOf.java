@@ -9,6 +9,10 @@ public class InstanceOf<T> extends LogicalPredicate<T> {
         this.aClass = aClass;
     }
 
+    public Class<?> aClass() {
+        return aClass;
+    }
+
     public boolean matches(T other) {
         if(other == null) {
             return false;
@@ -4,16 +4,28 @@ import com.googlecode.totallylazy.Pair;
 import com.googlecode.totallylazy.Predicate;
 import com.googlecode.totallylazy.Unchecked;
 import com.googlecode.totallylazy.collections.PersistentList;
+import com.googlecode.totallylazy.predicates.InstanceOf;
 
 import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.googlecode.totallylazy.Pair.pair;
 import static com.googlecode.totallylazy.Predicates.always;
 import static com.googlecode.totallylazy.Unchecked.cast;
 import static com.googlecode.totallylazy.collections.PersistentList.constructors.list;
 
+/**
+ * Renders a value with the most recently added renderer whose predicate matches it.
+ * <p/>
+ * Instances of the same class skip the same instanceOf predicates, so the pairs they can't match are
+ * dropped once per class and only the rest are scanned.
+ */
 public class CompositeRenderer implements Renderer<Object>{
     private final PersistentList<Pair<Predicate<Object>, Renderer<Object>>> pairs;
+    private final ConcurrentHashMap<Class<?>, PersistentList<Pair<Predicate<Object>, Renderer<Object>>>> candidates = new ConcurrentHashMap<>();
 
     private CompositeRenderer(PersistentList<Pair<Predicate<Object>, Renderer<Object>>> pairs) {
         this.pairs = pairs;
@@ -29,10 +41,22 @@ public class CompositeRenderer implements Renderer<Object>{
 
     @Override
     public Appendable render(Object value, Appendable appendable) throws IOException {
-        return pairs.find(p -> p.first().matches(value)).
+        PersistentList<Pair<Predicate<Object>, Renderer<Object>>> remaining = value == null ? pairs : candidates.computeIfAbsent(value.getClass(), this::candidates);
+        return remaining.find(p -> p.first().matches(value)).
                 get().second().render(value, appendable);
     }
 
+    // Drops every instanceOf pair that can never match the class, keeping the rest in order so the first match is the same
+    private PersistentList<Pair<Predicate<Object>, Renderer<Object>>> candidates(Class<?> aClass) {
+        if (Annotation.class.isAssignableFrom(aClass)) return pairs;
+        List<Pair<Predicate<Object>, Renderer<Object>>> result = new ArrayList<Pair<Predicate<Object>, Renderer<Object>>>();
+        for (Pair<Predicate<Object>, Renderer<Object>> pair : pairs) {
+            Predicate<Object> predicate = pair.first();
+            if (predicate.getClass() != InstanceOf.class || ((InstanceOf<?>) predicate).aClass().isAssignableFrom(aClass)) result.add(pair);
+        }
+        return result.size() == pairs.size() ? pairs : list(result);
+    }
+
     public <T> CompositeRenderer add(Predicate<? super T> predicate, Renderer<? super T> renderer) {
         return new CompositeRenderer(pairs.cons(pair(Unchecked.<Predicate<Object>>cast(predicate), cast(renderer))));
     }
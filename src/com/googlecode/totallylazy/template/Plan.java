@@ -0,0 +1,226 @@
+package com.googlecode.totallylazy.template;
+
+import com.googlecode.totallylazy.Unchecked;
+import com.googlecode.totallylazy.template.ast.Anonymous;
+import com.googlecode.totallylazy.template.ast.Arguments;
+import com.googlecode.totallylazy.template.ast.Attribute;
+import com.googlecode.totallylazy.template.ast.Expression;
+import com.googlecode.totallylazy.template.ast.FunctionCall;
+import com.googlecode.totallylazy.template.ast.ImplicitArguments;
+import com.googlecode.totallylazy.template.ast.Indirection;
+import com.googlecode.totallylazy.template.ast.Mapping;
+import com.googlecode.totallylazy.template.ast.Name;
+import com.googlecode.totallylazy.template.ast.NamedArguments;
+import com.googlecode.totallylazy.template.ast.Text;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.googlecode.totallylazy.Strings.string;
+import static com.googlecode.totallylazy.Unchecked.cast;
+
+/**
+ * A Template's expressions compiled once into render nodes.
+ * <p/>
+ * Text is kept as a String, attribute paths as arrays of lookups, anonymous templates are compiled with their
+ * parent and renderers called by a literal name are resolved from a Templates parent on first use and then reused;
+ * any other Renderers are asked each time, as they may hand back a different renderer for the same name.
+ */
+final class Plan implements Renderer<Map<String, Object>> {
+    private final Node[] nodes;
+
+    private Plan(Node[] nodes) {
+        this.nodes = nodes;
+    }
+
+    static Plan plan(List<Expression> template, Renderers parent) {
+        Node[] nodes = new Node[template.size()];
+        for (int i = 0; i < nodes.length; i++) nodes[i] = node(template.get(i), parent);
+        return new Plan(nodes);
+    }
+
+    @Override
+    public Appendable render(Map<String, Object> context, Appendable appendable) throws IOException {
+        Appendable result = appendable;
+        for (Node node : nodes) result = node.render(context, result);
+        return result;
+    }
+
+    interface Node {
+        Appendable render(Map<String, Object> context, Appendable appendable) throws IOException;
+    }
+
+    interface Value {
+        Object value(Map<String, Object> context) throws IOException;
+    }
+
+    private static Node node(Expression expression, Renderers parent) {
+        if (expression instanceof Text) {
+            String text = ((Text) expression).value().toString();
+            return (context, appendable) -> appendable.append(text);
+        }
+        if (expression instanceof Attribute) {
+            Value value = attribute((Attribute) expression, parent);
+            return (context, appendable) -> parent.render(value.value(context), appendable);
+        }
+        if (expression instanceof FunctionCall) {
+            Call call = new Call((FunctionCall) expression, parent);
+            return call::render;
+        }
+        if (expression instanceof Indirection) return node(((Indirection) expression).value(), parent);
+        if (expression instanceof Anonymous) return plan(((Anonymous) expression).template(), parent)::render;
+        if (expression instanceof Mapping) return mapping((Mapping) expression, parent);
+        throw new IllegalArgumentException("Unknown expression type: " + expression);
+    }
+
+    private static Node mapping(Mapping mapping, Renderers parent) {
+        Value attribute = attribute(mapping.attribute(), parent);
+        Plan template = plan(mapping.expression().template(), parent);
+        String[] names = mapping.expression().paramaeterNames().toArray(new String[0]);
+        return (context, appendable) -> {
+            Object value = attribute.value(context);
+            Appendable result = appendable;
+            if (value instanceof Map) {
+                for (Map.Entry<?, ?> entry : Unchecked.<Map<?, ?>>cast(value).entrySet())
+                    result = template.render(parameters(names, entry.getValue(), entry.getKey()), result);
+            } else if (value instanceof Iterable) {
+                result = each(template, names, ((Iterable<?>) value).iterator(), result);
+            } else if (value instanceof Iterator) {
+                result = each(template, names, (Iterator<?>) value, result);
+            } else {
+                result = template.render(parameters(names, value, 0), result);
+            }
+            return result;
+        };
+    }
+
+    // Renders as it iterates, so a lazy sequence is never held in memory as a whole
+    private static Appendable each(Plan template, String[] names, Iterator<?> iterator, Appendable appendable) throws IOException {
+        Appendable result = appendable;
+        for (int index = 0; iterator.hasNext(); index++) result = template.render(parameters(names, iterator.next(), index), result);
+        return result;
+    }
+
+    private static Map<String, Object> parameters(String[] names, Object value, Object key) {
+        Map<String, Object> parameters = new LinkedHashMap<String, Object>();
+        if (names.length > 0) parameters.put(names[0], value);
+        if (names.length > 1) parameters.put(names[1], key);
+        return parameters;
+    }
+
+    private static Value value(Expression expression, Renderers parent) {
+        if (expression instanceof Text) {
+            Object text = ((Text) expression).value();
+            return context -> text;
+        }
+        if (expression instanceof Name) {
+            String name = ((Name) expression).value();
+            return context -> context.get(name);
+        }
+        if (expression instanceof Indirection) {
+            Value name = name(expression, parent);
+            return context -> context.get(string(name.value(context)));
+        }
+        if (expression instanceof Attribute) return attribute((Attribute) expression, parent);
+        if (expression instanceof FunctionCall) {
+            Call call = new Call((FunctionCall) expression, parent);
+            return context -> call.render(context, new StringBuilder()).toString();
+        }
+        if (expression instanceof Anonymous) {
+            Plan template = plan(((Anonymous) expression).template(), parent);
+            return template::render;
+        }
+        throw new IllegalArgumentException("Unknown value type: " + expression);
+    }
+
+    private static Value name(Expression expression, Renderers parent) {
+        if (expression instanceof Name) {
+            String name = ((Name) expression).value();
+            return context -> name;
+        }
+        if (expression instanceof Indirection) {
+            Value value = value(((Indirection) expression).value(), parent);
+            return context -> string(value.value(context));
+        }
+        throw new IllegalArgumentException("Unknown name type: " + expression);
+    }
+
+    // Each step looks up the next value in the map returned by the previous one
+    private static Value attribute(Attribute attribute, Renderers parent) {
+        List<Expression> path = attribute.value();
+        Value[] steps = new Value[path.size()];
+        for (int i = 0; i < steps.length; i++) steps[i] = value(path.get(i), parent);
+        return context -> {
+            Object container = context;
+            for (Value step : steps) {
+                if (container == null) return null;
+                if (!(container instanceof Map)) throw new IllegalArgumentException("Unknown container type: " + container);
+                container = step.value(cast(container));
+            }
+            return container;
+        };
+    }
+
+    private static Value arguments(Arguments<?> arguments, Renderers parent) {
+        if (arguments instanceof ImplicitArguments) {
+            List<Expression> expressions = ((ImplicitArguments) arguments).value();
+            if (expressions.isEmpty()) return context -> context;
+            if (expressions.size() == 1) return value(expressions.get(0), parent);
+            Value[] values = values(expressions, parent);
+            return context -> {
+                List<Object> result = new ArrayList<Object>(values.length);
+                for (Value value : values) result.add(value.value(context));
+                return result;
+            };
+        }
+        if (arguments instanceof NamedArguments) {
+            Map<String, Expression> named = ((NamedArguments) arguments).value();
+            String[] names = named.keySet().toArray(new String[0]);
+            Value[] values = values(new ArrayList<Expression>(named.values()), parent);
+            return context -> {
+                Map<String, Object> result = new LinkedHashMap<String, Object>();
+                for (int i = 0; i < names.length; i++) result.put(names[i], values[i].value(context));
+                return result;
+            };
+        }
+        throw new IllegalArgumentException("Unknown arguments type: " + arguments);
+    }
+
+    private static Value[] values(List<Expression> expressions, Renderers parent) {
+        Value[] values = new Value[expressions.size()];
+        for (int i = 0; i < values.length; i++) values[i] = value(expressions.get(i), parent);
+        return values;
+    }
+
+    private static final class Call {
+        private final Renderers parent;
+        private final Value name;
+        private final String literal;
+        private final Value arguments;
+        private volatile Renderer<Object> renderer;
+
+        private Call(FunctionCall call, Renderers parent) {
+            this.parent = parent;
+            this.name = name(call.name(), parent);
+            this.literal = call.name() instanceof Name ? ((Name) call.name()).value() : null;
+            this.arguments = arguments(call.arguments(), parent);
+        }
+
+        private Appendable render(Map<String, Object> context, Appendable appendable) throws IOException {
+            return renderer(context).render(arguments.value(context), appendable);
+        }
+
+        // Only Templates promise to hand back the same renderer for a name, so only theirs are kept
+        private Renderer<Object> renderer(Map<String, Object> context) throws IOException {
+            if (literal == null) return parent.get(string(name.value(context)));
+            if (!(parent instanceof Templates)) return parent.get(literal);
+            Renderer<Object> result = renderer;
+            if (result == null) renderer = result = parent.get(literal);
+            return result;
+        }
+    }
+}
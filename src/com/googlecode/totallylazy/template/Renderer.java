@@ -1,8 +1,10 @@
 package com.googlecode.totallylazy.template;
 
+import com.googlecode.totallylazy.OutputStreamAppendable;
 import com.googlecode.totallylazy.Strings;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.concurrent.Callable;
 
 public interface Renderer<T> {
@@ -12,6 +14,20 @@ public interface Renderer<T> {
 
     Appendable render(final T instance, final Appendable appendable) throws IOException;
 
+    default OutputStream renderTo(T instance, OutputStream stream) throws IOException {
+        return renderTo(instance, stream, OutputStreamAppendable.DEFAULT_FLUSH_THRESHOLD);
+    }
+
+    /**
+     * Streams the output as UTF-8, writing and flushing every flushThreshold bytes instead of building a String
+     */
+    default OutputStream renderTo(T instance, OutputStream stream, int flushThreshold) throws IOException {
+        OutputStreamAppendable appendable = OutputStreamAppendable.outputStreamAppendable(stream, flushThreshold);
+        render(instance, appendable);
+        appendable.finish();
+        return stream;
+    }
+
     enum Default implements Renderer<Object> {
         Instance;
 
@@ -13,6 +13,7 @@ import static com.googlecode.totallylazy.collections.PersistentList.constructors
 
 public class Location {
     private final PersistentList<StartElement> path;
+    private final PersistentList<Integer> positions;
     private final XMLEventReader xmlReader;
 
     public Location(XMLEventReader xmlReader) {
@@ -20,22 +21,45 @@ public class Location {
     }
 
     public Location(XMLEventReader xmlReader, PersistentList<StartElement> path) {
+        this(xmlReader, path, path.map(ignore -> 0));
+    }
+
+    private Location(XMLEventReader xmlReader, PersistentList<StartElement> path, PersistentList<Integer> positions) {
         this.xmlReader = xmlReader;
         this.path = path;
+        this.positions = positions;
     }
 
     public Location add(StartElement value) {
-        return new Location(xmlReader, path.cons(value));
+        return add(value, 0);
+    }
+
+    /**
+     * @param position the element's position among its siblings with the same name, starting at 1
+     */
+    public Location add(StartElement value, int position) {
+        return new Location(xmlReader, path.cons(value), positions.cons(position));
     }
 
     public Location remove() {
-        return new Location(xmlReader, path.tail());
+        return new Location(xmlReader, path.tail(), positions.tail());
     }
 
     public StartElement current() {
         return path.head();
     }
 
+    /**
+     * The current element's position among its siblings with the same name, starting at 1, or 0 when not known
+     */
+    public int position() {
+        return positions.head();
+    }
+
+    public boolean isEmpty() {
+        return path.isEmpty();
+    }
+
     @Override
     public String toString() {
         return Sequences.toString(reverse(path), "/");
@@ -0,0 +1,141 @@
+package com.googlecode.totallylazy.xml;
+
+import com.googlecode.totallylazy.Callable1;
+import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.Predicate;
+import com.googlecode.totallylazy.Unchecked;
+import com.googlecode.totallylazy.collections.PersistentList;
+import com.googlecode.totallylazy.collections.PersistentMap;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.collections.ListMap.listMap;
+
+/**
+ * Reads the rest of a matched element straight from the StAX events into immutable values instead of a DOM.
+ * <p/>
+ * An element with neither attributes nor child elements becomes its text. Anything else becomes a PersistentMap of
+ * "@attribute" to value and child name to child value (a PersistentList when the name repeats), plus "#text" for
+ * any text that isn't just whitespace. The matched element itself is always a map.
+ * <p/>
+ * With a projection only the elements it matches are captured (whole), along with the elements leading to them;
+ * everything else is read past without being built. The projection sees Locations relative to the matched element.
+ */
+public class RecordCreator implements Callable1<Location, PersistentMap<String, Object>> {
+    public static final String TEXT = "#text";
+    private final XMLEventReader reader;
+    private final Predicate<? super Location> projection;
+    private final Siblings siblings;
+
+    public RecordCreator(XMLEventReader reader) {
+        this(reader, null);
+    }
+
+    public RecordCreator(XMLEventReader reader, Predicate<? super Location> projection) {
+        this.reader = reader;
+        this.projection = projection;
+        this.siblings = StreamingXPath.positional(projection) ? new Siblings() : null;
+    }
+
+    @Override
+    public PersistentMap<String, Object> call(Location location) throws Exception {
+        Fields fields = new Fields(true);
+        fields.attributes(location.current());
+        children(fields, new Location(reader), projection == null);
+        return fields.map();
+    }
+
+    // Reads up to and including the end of the current element
+    private Fields children(Fields fields, Location path, boolean capture) throws XMLStreamException {
+        while (reader.hasNext()) {
+            XMLEvent event = reader.nextEvent();
+            if (event.isEndElement()) return fields;
+            if (event.isCharacters() && capture) fields.text(event.asCharacters());
+            if (event.isStartElement()) {
+                StartElement start = event.asStartElement();
+                String name = start.getName().getLocalPart();
+                Location child = projection == null ? path : path.add(start, siblings == null ? 0 : siblings.start(name));
+                boolean captureChild = capture || projection.matches(child);
+                Fields value = new Fields(captureChild);
+                if (captureChild) value.attributes(start);
+                children(value, child, captureChild);
+                if (siblings != null) siblings.end();
+                if (captureChild || !value.isEmpty()) fields.child(name, value.value());
+            }
+        }
+        return fields;
+    }
+
+    private static class Fields {
+        private final boolean capture;
+        private final Map<String, Object> values = new LinkedHashMap<String, Object>();
+        private Map<String, List<Object>> repeated;
+        private StringBuilder text;
+
+        private Fields(boolean capture) {
+            this.capture = capture;
+        }
+
+        private void attributes(StartElement start) {
+            for (Iterator<Attribute> attributes = Unchecked.cast(start.getAttributes()); attributes.hasNext(); ) {
+                Attribute attribute = attributes.next();
+                values.put("@" + attribute.getName().getLocalPart(), attribute.getValue());
+            }
+        }
+
+        private void text(Characters characters) {
+            if (text == null) text = new StringBuilder();
+            text.append(characters.getData());
+        }
+
+        // values keeps the first child of each name (and so the order); repeated holds all of them once a name repeats
+        private void child(String name, Object value) {
+            Object existing = values.putIfAbsent(name, value);
+            if (existing == null) return;
+            if (repeated == null) repeated = new HashMap<String, List<Object>>();
+            List<Object> children = repeated.get(name);
+            if (children == null) {
+                children = new ArrayList<Object>();
+                children.add(existing);
+                repeated.put(name, children);
+            }
+            children.add(value);
+        }
+
+        private boolean isEmpty() {
+            return values.isEmpty();
+        }
+
+        private Object value() {
+            if (values.isEmpty() && capture) return text == null ? "" : text.toString();
+            return map();
+        }
+
+        private PersistentMap<String, Object> map() {
+            List<Pair<String, Object>> pairs = new ArrayList<Pair<String, Object>>(values.size() + 1);
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                List<Object> children = repeated == null ? null : repeated.get(entry.getKey());
+                pairs.add(pair(entry.getKey(), children == null ? entry.getValue() : PersistentList.constructors.list(children)));
+            }
+            if (text != null && !isWhitespace(text)) pairs.add(pair(TEXT, (Object) text.toString()));
+            return listMap(pairs);
+        }
+
+        private static boolean isWhitespace(CharSequence characters) {
+            for (int i = 0; i < characters.length(); i++) if (!Character.isWhitespace(characters.charAt(i))) return false;
+            return true;
+        }
+    }
+}
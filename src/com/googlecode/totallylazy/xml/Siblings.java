@@ -0,0 +1,33 @@
+package com.googlecode.totallylazy.xml;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the children with each name seen so far at every level of the path, reusing one map per depth.
+ */
+final class Siblings {
+    private final List<Map<String, int[]>> levels = new ArrayList<Map<String, int[]>>();
+    private int depth;
+
+    Siblings() {
+        levels.add(new HashMap<String, int[]>());
+    }
+
+    /**
+     * Enters an element and returns its position among its siblings with the same name, starting at 1
+     */
+    int start(String name) {
+        int[] count = levels.get(depth).computeIfAbsent(name, ignore -> new int[1]);
+        int position = ++count[0];
+        if (++depth == levels.size()) levels.add(new HashMap<String, int[]>());
+        else levels.get(depth).clear();
+        return position;
+    }
+
+    void end() {
+        depth--;
+    }
+}
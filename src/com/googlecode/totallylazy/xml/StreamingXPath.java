@@ -1,12 +1,30 @@
 package com.googlecode.totallylazy.xml;
 
+import com.googlecode.totallylazy.Option;
 import com.googlecode.totallylazy.Predicate;
 import com.googlecode.totallylazy.Predicates;
+import com.googlecode.totallylazy.parser.Parser;
+import com.googlecode.totallylazy.parser.Parsers;
+import com.googlecode.totallylazy.parser.Result;
+import com.googlecode.totallylazy.predicates.AndPredicate;
 import com.googlecode.totallylazy.predicates.LogicalPredicate;
+import com.googlecode.totallylazy.predicates.Not;
+import com.googlecode.totallylazy.predicates.OrPredicate;
 
 import javax.xml.namespace.QName;
+import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.StartElement;
+import java.util.List;
 
+import static com.googlecode.totallylazy.Characters.among;
+import static com.googlecode.totallylazy.Characters.digit;
+import static com.googlecode.totallylazy.Characters.identifierPart;
+import static com.googlecode.totallylazy.Characters.notAmong;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.totallylazy.parser.Parsers.isChar;
+import static com.googlecode.totallylazy.parser.Parsers.string;
+import static com.googlecode.totallylazy.parser.Parsers.tuple;
+import static com.googlecode.totallylazy.parser.Parsers.wsChar;
 import static com.googlecode.totallylazy.predicates.LogicalPredicate.logicalPredicate;
 
 public class StreamingXPath {
@@ -25,4 +43,128 @@ public class StreamingXPath {
     public static Predicate<Location> descendant(Predicate<? super StartElement> predicate) {
         return path -> predicate.matches(path.current());
     }
+
+    /**
+     * Compiles a forward only XPath subset to a predicate that {@link XmlReader#iterator(Predicate)} can run in a
+     * single pass: absolute or relative location paths of child (/, child::) and descendant (//, descendant::)
+     * steps, each a name or * with any number of [@attribute], [@attribute='value'] and [position] predicates.
+     * <p/>
+     * Names are matched on their local part. Positions count siblings with the same name, so they need a name test,
+     * can't follow descendant:: and must be the first predicate of their step. As with any XmlReader predicate, matches nested inside a match are not
+     * returned, because the reader hands the whole matched element to the caller.
+     */
+    public static LogicalPredicate<Location> xpath(String expression) {
+        Result<List<Step>> result = Grammar.PATH.parse(expression);
+        if (result.failure() || !result.remainder().isEmpty())
+            throw new IllegalArgumentException("Unsupported XPath: " + expression);
+        return new XPath(result.value().toArray(new Step[0]));
+    }
+
+    /**
+     * Whether the predicate is an xpath with a position step, or an and/or/not of one, so siblings need counting
+     */
+    public static boolean positional(Predicate<?> predicate) {
+        if (predicate instanceof XPath) return ((XPath) predicate).positional;
+        if (predicate instanceof Not) return positional(((Not<?>) predicate).predicate());
+        if (predicate instanceof OrPredicate) return ((OrPredicate<?>) predicate).predicates().exists(StreamingXPath::positional);
+        if (predicate instanceof AndPredicate) return ((AndPredicate<?>) predicate).predicates().exists(StreamingXPath::positional);
+        return false;
+    }
+
+    private static boolean matches(Step[] steps, int index, Location location) {
+        if (location.isEmpty() || !steps[index].test.matches(location)) return false;
+        Location parent = location.remove();
+        if (index == 0) return steps[index].descendant || parent.isEmpty();
+        if (!steps[index].descendant) return matches(steps, index - 1, parent);
+        for (Location ancestor = parent; !ancestor.isEmpty(); ancestor = ancestor.remove())
+            if (matches(steps, index - 1, ancestor)) return true;
+        return false;
+    }
+
+    private static class XPath extends LogicalPredicate<Location> {
+        private final Step[] steps;
+        private final boolean positional;
+
+        private XPath(Step[] steps) {
+            this.steps = steps;
+            this.positional = sequence(steps).exists(step -> step.positional);
+        }
+
+        @Override
+        public boolean matches(Location location) {
+            return StreamingXPath.matches(steps, steps.length - 1, location);
+        }
+    }
+
+    private static class Step {
+        private final boolean descendant;
+        private final Predicate<Location> test;
+        private final boolean positional;
+
+        private Step(boolean descendant, Predicate<Location> test, boolean positional) {
+            this.descendant = descendant;
+            this.test = test;
+            this.positional = positional;
+        }
+
+        private static Step step(boolean separator, Option<Boolean> axis, Option<String> name, List<Predicate<Location>> conditions) {
+            boolean positional = sequence(conditions).exists(Position.class::isInstance);
+            if (positional && (name.isEmpty() || axis.getOrElse(false)))
+                throw new IllegalArgumentException("Positions are only supported on named child steps");
+            if (sequence(conditions).drop(1).exists(Position.class::isInstance))
+                throw new IllegalArgumentException("A position is only supported as the first predicate of a step");
+            LogicalPredicate<Location> test = name.isEmpty() ? Predicates.<Location>any() : element(name(localPart(name.get())));
+            for (Predicate<Location> condition : conditions) test = test.and(condition);
+            return new Step(separator || axis.getOrElse(false), test, positional);
+        }
+
+        private static String localPart(String name) {
+            return name.substring(name.indexOf(':') + 1);
+        }
+    }
+
+    private static LogicalPredicate<Location> element(Predicate<? super StartElement> predicate) {
+        return logicalPredicate((Predicate<Location>) location -> predicate.matches(location.current()));
+    }
+
+    private static class Position extends LogicalPredicate<Location> {
+        private final int position;
+
+        private Position(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public boolean matches(Location location) {
+            return location.position() == position;
+        }
+    }
+
+    private interface Grammar {
+        Parser<String> NAME = Parsers.characters(identifierPart.or(among("-.:"))).map(Object::toString);
+        Parser<String> LITERAL = Parsers.or(
+                Parsers.characters(notAmong("'")).optional().between(isChar('\''), isChar('\'')),
+                Parsers.characters(notAmong("\"")).optional().between(isChar('"'), isChar('"'))).
+                map(value -> value.map(Object::toString).getOrElse(""));
+
+        Parser<Predicate<Location>> ATTRIBUTE = isChar('@').next(NAME).then(wsChar('=').next(Parsers.ws(LITERAL)).optional()).
+                map(pair -> element(element -> {
+                    Attribute attribute = element.getAttributeByName(new QName(pair.first()));
+                    return attribute != null && pair.second().map(attribute.getValue()::equals).getOrElse(true);
+                }));
+        Parser<Predicate<Location>> POSITION = Parsers.characters(digit).map(value -> new Position(Integer.parseInt(value.toString())));
+        Parser<List<Predicate<Location>>> CONDITIONS = Parsers.<Predicate<Location>>or(ATTRIBUTE, POSITION).
+                between(wsChar('['), wsChar(']')).many();
+
+        Parser<Boolean> AXIS = string("child::").returns(false).or(string("descendant::").returns(true));
+        Parser<Option<String>> NODE_TEST = isChar('*').returns(Option.<String>none()).or(NAME.map(Option::some));
+        Parser<Boolean> SEPARATOR = string("//").returns(true).or(isChar('/').returns(false));
+
+        Parser<Step> FIRST_STEP = tuple(SEPARATOR.optional(), AXIS.optional(), NODE_TEST.then(CONDITIONS)).
+                map(triple -> Step.step(triple.first().getOrElse(false), triple.second(), triple.third().first(), triple.third().second()));
+        Parser<Step> STEP = tuple(SEPARATOR, AXIS.optional(), NODE_TEST.then(CONDITIONS)).
+                map(triple -> Step.step(triple.first(), triple.second(), triple.third().first(), triple.third().second()));
+
+        Parser<List<Step>> PATH = FIRST_STEP.then(STEP.many()).map(pair -> sequence(pair.second()).cons(pair.first()).toList());
+    }
 }
@@ -0,0 +1,116 @@
+package com.googlecode.totallylazy.xml;
+
+import com.googlecode.totallylazy.Xml;
+import org.w3c.dom.Node;
+
+import javax.xml.namespace.QName;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of compiled XPath expressions shared by every thread.
+ * <p/>
+ * XPathExpression isn't thread safe, so each expression keeps a pool of compiled copies: evaluating leases one,
+ * compiling another only when every copy is in use, and returns it afterwards. So an expression is compiled at most
+ * as many times as it is evaluated concurrently, rather than once per thread.
+ * <p/>
+ * Looking an expression up takes no lock: each pool just notes when it was last used. Once a miss takes the cache
+ * over the maximum the pool used longest ago is dropped, so eviction is only approximately least recently used.
+ */
+public class XPathExpressions {
+    private final int maximumExpressions;
+    private final ConcurrentHashMap<String, Pool> pools = new ConcurrentHashMap<String, Pool>();
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong compiles = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private XPathExpressions(int maximumExpressions) {
+        this.maximumExpressions = maximumExpressions;
+    }
+
+    public static XPathExpressions xpathExpressions(int maximumExpressions) {
+        return new XPathExpressions(maximumExpressions);
+    }
+
+    public Object evaluate(String expression, Node node, QName returnType) throws XPathExpressionException {
+        Pool pool = pool(expression);
+        XPathExpression compiled = pool.expressions.poll();
+        if (compiled == null) {
+            compiled = Xml.xpath().compile(expression);
+            compiles.incrementAndGet();
+        }
+        try {
+            return compiled.evaluate(node, returnType);
+        } finally {
+            pool.expressions.offer(compiled);
+        }
+    }
+
+    // Only misses move the clock, by two, so a hit since the last miss counts as more recent than that miss
+    private Pool pool(String expression) {
+        Pool pool = pools.get(expression);
+        if (pool != null) {
+            hits.incrementAndGet();
+            pool.used = clock.get() + 1;
+            return pool;
+        }
+        misses.incrementAndGet();
+        Pool created = new Pool(clock.addAndGet(2));
+        pool = pools.putIfAbsent(expression, created);
+        if (pool != null) return pool;
+        evict(created);
+        return created;
+    }
+
+    private void evict(Pool keep) {
+        while (pools.size() > maximumExpressions) {
+            Map.Entry<String, Pool> oldest = null;
+            for (Map.Entry<String, Pool> entry : pools.entrySet()) {
+                if (entry.getValue() == keep) continue;
+                if (oldest == null || entry.getValue().used < oldest.getValue().used) oldest = entry;
+            }
+            if (oldest == null) return;
+            pools.remove(oldest.getKey(), oldest.getValue());
+        }
+    }
+
+    /**
+     * How many times an expression has been compiled
+     */
+    public long compiles() {
+        return compiles.get();
+    }
+
+    /**
+     * How many evaluations found their expression in the cache
+     */
+    public long hits() {
+        return hits.get();
+    }
+
+    /**
+     * How many evaluations didn't find their expression in the cache
+     */
+    public long misses() {
+        return misses.get();
+    }
+
+    public int size() {
+        return pools.size();
+    }
+
+    private static class Pool {
+        private final Queue<XPathExpression> expressions = new ConcurrentLinkedQueue<XPathExpression>();
+        private volatile long used;
+
+        private Pool(long used) {
+            this.used = used;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.googlecode.totallylazy.xml;
 import com.googlecode.totallylazy.Iterators;
 import com.googlecode.totallylazy.LazyException;
 import com.googlecode.totallylazy.Predicate;
+import com.googlecode.totallylazy.collections.PersistentMap;
 import com.googlecode.totallylazy.iterators.StatefulIterator;
 import org.w3c.dom.Node;
 
@@ -43,22 +44,41 @@ public class XmlReader {
                 location -> new NodeCreator(location.reader()).call(location));
     }
 
+    public static Iterator<PersistentMap<String, Object>> records(Reader reader, Predicate<Location> predicate) {
+        return records(reader, predicate, null);
+    }
+
+    /**
+     * Like {@link #xmlReader(Reader, Predicate)} but builds each match as a {@link RecordCreator} record instead of a DOM
+     */
+    public static Iterator<PersistentMap<String, Object>> records(Reader reader, Predicate<Location> predicate, Predicate<? super Location> projection) {
+        return Iterators.map(xmlReader(reader).iterator(predicate),
+                location -> new RecordCreator(location.reader(), projection).call(location));
+    }
+
+    /**
+     * Siblings are only counted, for {@link Location#position()}, when the predicate is a StreamingXPath with a
+     * position step (or an and/or/not of one)
+     */
     public StatefulIterator<Location> iterator(Predicate<Location> predicate) {
         return new StatefulIterator<Location>() {
             private Location path = new Location(reader);
+            private final Siblings siblings = StreamingXPath.positional(predicate) ? new Siblings() : null;
             @Override
             protected Location getNext() throws Exception {
                 while (reader.hasNext()) {
                     XMLEvent event = reader.nextEvent();
                     if (event instanceof EndElement) {
                         path = path.remove();
+                        if (siblings != null) siblings.end();
                     }
                     if (event instanceof StartElement) {
                         StartElement start = (StartElement) event;
-                        path = path.add(start);
+                        path = path.add(start, siblings == null ? 0 : siblings.start(start.getName().getLocalPart()));
                         if (predicate.matches(path)) {
                             Location result = path;
                             path = path.remove();
+                            if (siblings != null) siblings.end();
                             return result;
                         }
                     }
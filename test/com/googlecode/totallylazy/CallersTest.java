@@ -1,11 +1,19 @@
 package com.googlecode.totallylazy;
 
+import com.googlecode.totallylazy.callables.TimeReport;
+import com.googlecode.totallylazy.concurrent.NamedExecutors;
+import org.junit.Ignore;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import static com.googlecode.totallylazy.Callers.callConcurrently;
+import static com.googlecode.totallylazy.Sequences.repeat;
+import static com.googlecode.totallylazy.numbers.Numbers.increment;
+import static com.googlecode.totallylazy.numbers.Numbers.range;
+import static com.googlecode.totallylazy.numbers.Numbers.sum;
 import static java.lang.Thread.currentThread;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
@@ -16,4 +24,73 @@ public class CallersTest {
     public void callConcurrentlyIgnoresAnEmptyIterator() throws Exception {
         callConcurrently(new ArrayList<Callable<Object>>());
     }
+
+    @Test
+    public void callsOnTheSharedExecutor() throws Exception {
+        String name = callConcurrently(threadName()).call();
+        assertThat(name, is(not(currentThread().getName())));
+        assertThat(callConcurrently(threadName(), threadName()).size(), is(2));
+    }
+
+    @Test
+    public void nestedConcurrentCallsDoNotStarveTheSharedExecutor() throws Exception {
+        final int size = Runtime.getRuntime().availableProcessors() * 4;
+        Number total = range(1, size).mapConcurrently(new Callable1<Number, Number>() {
+            @Override
+            public Number call(Number number) throws Exception {
+                return range(1, 2).mapConcurrently(sleepAndReturn()).reduce(sum);
+            }
+        }).reduce(sum);
+        assertThat(total.intValue(), is(size * 3));
+    }
+
+    @Test
+    @Ignore("Manual Performance Tests")
+    public void manySmallConcurrentMapsAreQuick() throws Exception {
+        final Sequence<Number> numbers = range(1, 8).realise();
+        for (int i = 0; i < 5; i++) {
+            System.out.println("Shared executor: " + time(new Function<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return numbers.mapConcurrently(increment).realise();
+                }
+            }));
+            System.out.println("Executor per call: " + time(new Function<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    ExecutorService service = NamedExecutors.newCachedThreadPool(CallersTest.class);
+                    try {
+                        return numbers.mapConcurrently(increment, service).realise();
+                    } finally {
+                        service.shutdown();
+                    }
+                }
+            }));
+        }
+    }
+
+    private static TimeReport time(Function<Object> function) {
+        TimeReport report = new TimeReport();
+        repeat(function.time(report)).take(1000).realise();
+        return report;
+    }
+
+    private static Function<String> threadName() {
+        return new Function<String>() {
+            @Override
+            public String call() throws Exception {
+                return currentThread().getName();
+            }
+        };
+    }
+
+    private static Callable1<Number, Number> sleepAndReturn() {
+        return new Callable1<Number, Number>() {
+            @Override
+            public Number call(Number number) throws Exception {
+                Thread.sleep(10);
+                return number;
+            }
+        };
+    }
 }
@@ -0,0 +1,50 @@
+package com.googlecode.totallylazy;
+
+import com.googlecode.totallylazy.callables.TimeReport;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static com.googlecode.totallylazy.Callables.toString;
+import static com.googlecode.totallylazy.Predicates.always;
+import static com.googlecode.totallylazy.Sequences.characters;
+import static com.googlecode.totallylazy.Sequences.repeat;
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class EscaperTest {
+    @Test
+    public void usesTheMostRecentlyAddedRule() throws Exception {
+        Escaper escaper = new Escaper().
+                withRule('a', "1").
+                withRule(Characters.among("ab"), c -> "[" + c + "]").
+                withRule(c -> c == 'b' || c == 'é', c -> "{" + c + "}").
+                withRule('c', "3");
+        assertThat(escaper.escape("abcdé"), is("[a]{b}3d{é}"));
+    }
+
+    @Test
+    public void returnsTheValueWhenNothingNeedsEscaping() throws Exception {
+        String value = "Nothing to see here";
+        assertThat(Xml.escape(value), sameInstance(value));
+        assertThat(new Escaper().escape(null), is((String) null));
+    }
+
+    @Test
+    public void canEscapeToAnAppendable() throws Exception {
+        assertThat(Xml.escape("<a href='x'>é</a>", new StringBuilder("> ")).toString(), is("> &lt;a href=&#39;x&#39;&gt;&#233;&lt;/a&gt;"));
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void isFasterThanScanningRules() throws Exception {
+        final String value = repeat("Some <b>text</b> & 'quotes' that \"mostly\" doesn't need escaping ").take(20).toString("");
+        final Rules<Character, String> rules = Rules.rules();
+        rules.addLast(always(Character.class), toString);
+        rules.addFirst(Strings.unicodeControlOrUndefinedCharacter(), Xml.toXmlEntity());
+        for (Pair<Character, String> rule : Sequences.sequence(Pair.pair('"', "&quot;"), Pair.pair('\'', "&#39;"), Pair.pair('>', "&gt;"), Pair.pair('<', "&lt;"), Pair.pair('&', "&amp;")))
+            rules.addFirst(Predicates.is(rule.first()), Functions.returns1(rule.second()));
+        System.out.println("Rules: " + TimeReport.time(10000, () -> characters(value).map(rules).toString("")));
+        System.out.println("Escaper: " + TimeReport.time(10000, () -> Xml.escape(value)));
+    }
+}
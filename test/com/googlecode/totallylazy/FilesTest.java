@@ -1,9 +1,26 @@
 package com.googlecode.totallylazy;
 
+import com.googlecode.totallylazy.callables.TimeReport;
+import com.googlecode.totallylazy.regex.Regex;
 import org.hamcrest.CoreMatchers;
+import org.junit.Ignore;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.MatchResult;
 
 import static com.googlecode.totallylazy.Files.TEMP_DIR;
 import static com.googlecode.totallylazy.Files.ancestors;
@@ -15,6 +32,7 @@ import static com.googlecode.totallylazy.Files.emptyTemporaryDirectory;
 import static com.googlecode.totallylazy.Files.file;
 import static com.googlecode.totallylazy.Files.files;
 import static com.googlecode.totallylazy.Files.hasSuffix;
+import static com.googlecode.totallylazy.Files.map;
 import static com.googlecode.totallylazy.Files.name;
 import static com.googlecode.totallylazy.Files.path;
 import static com.googlecode.totallylazy.Files.randomFilename;
@@ -22,9 +40,11 @@ import static com.googlecode.totallylazy.Files.recursiveFiles;
 import static com.googlecode.totallylazy.Files.temporaryFile;
 import static com.googlecode.totallylazy.Files.workingDirectory;
 import static com.googlecode.totallylazy.Files.write;
+import static com.googlecode.totallylazy.Closeables.using;
 import static com.googlecode.totallylazy.Option.none;
 import static com.googlecode.totallylazy.Predicates.equalTo;
 import static com.googlecode.totallylazy.Predicates.where;
+import static com.googlecode.totallylazy.Sequences.repeat;
 import static com.googlecode.totallylazy.Strings.bytes;
 import static com.googlecode.totallylazy.Strings.endsWith;
 import static com.googlecode.totallylazy.matchers.IterableMatcher.hasExactly;
@@ -120,4 +140,189 @@ public class FilesTest {
 
        assertThat(Strings.lines(aFile).first(), is("ab"));
     }
+
+    @Test
+    public void readsBytesAndStringsFromAFile() throws Exception {
+        File file = write(bytes("caf\u00e9"), temporaryFile());
+
+        assertThat(Bytes.bytes(file), is(bytes("caf\u00e9")));
+        assertThat(Strings.toString(file), is("caf\u00e9"));
+        assertThat(Bytes.bytes(write(new byte[0], temporaryFile())).length, is(0));
+    }
+
+    @Test
+    public void readsAChannelThatReportsNoSizeWithoutClosingIt() throws Exception {
+        File file = write(bytes(repeat("caf\u00e9 ").take(5000).toString("")), temporaryFile());
+        using(new FileInputStream(file).getChannel(), (FileChannel real) -> {
+            FileChannel channel = new ReportedSizeChannel(real, 0);
+            assertThat(Bytes.bytes(channel), is(Bytes.bytes(file)));
+            assertThat(channel.isOpen(), is(true));
+            return null;
+        });
+    }
+
+    @Test
+    public void readsAChannelThatHasGrownWithoutClosingIt() throws Exception {
+        File file = write(bytes(repeat("caf\u00e9 ").take(5000).toString("")), temporaryFile());
+        using(new FileInputStream(file).getChannel(), (FileChannel real) -> {
+            FileChannel channel = new ReportedSizeChannel(real, 10);
+            assertThat(Bytes.bytes(channel), is(Bytes.bytes(file)));
+            assertThat(channel.isOpen(), is(true));
+            return null;
+        });
+    }
+
+    @Test
+    public void canMapAFileAsCharacters() throws Exception {
+        File ascii = write(bytes("one two three"), temporaryFile());
+        assertThat(map(ascii).toString(), is("one two three"));
+        assertThat(map(ascii).subSequence(4, 7).toString(), is("two"));
+        assertThat(Regex.regex("t\\w+").findMatches(map(ascii)).map(MatchResult::group).toList(), hasExactly("two", "three"));
+        assertThat(Segment.constructors.characters(map(ascii)).tail().head(), is('n'));
+
+        File utf8 = write(bytes("caf\u00e9 \u2603"), temporaryFile());
+        assertThat(map(utf8).toString(), is("caf\u00e9 \u2603"));
+        assertThat(map(utf8).charAt(3), is('\u00e9'));
+        assertThat(((CharBuffer) map(utf8)).isReadOnly(), is(true));
+        assertThat(map(utf8, StandardCharsets.ISO_8859_1).length(), is(9));
+    }
+
+    @Test
+    public void copiesFilesWithTheirChannels() throws Exception {
+        File source = write(bytes("some content"), temporaryFile());
+        File destination = temporaryFile();
+
+        Streams.copyAndClose(new FileInputStream(source), new FileOutputStream(destination));
+
+        assertThat(Strings.toString(destination), is("some content"));
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void readingAndCopyingLargeFiles() throws Exception {
+        for (long size : new long[]{1L << 20, 1L << 26, 1L << 28, 1L << 30}) {
+            final File file = temporaryFile();
+            using(new RandomAccessFile(file, "rw"), (RandomAccessFile f) -> {
+                byte[] line = bytes("2014-01-01 12:00:00 INFO some log line that is mostly ascii\n");
+                for (long written = 0; written < size; written += line.length) f.write(line);
+                return null;
+            });
+            final File copy = temporaryFile();
+            int runs = (int) Math.max(1, (1L << 26) / size);
+            System.out.println(size / 1024 + "KB");
+            if (size <= 1L << 28) {
+                System.out.println("  bytes stream: " + TimeReport.time(runs, () -> Bytes.bytes(new FileInputStream(file))));
+                System.out.println("  bytes channel: " + TimeReport.time(runs, () -> Bytes.bytes(file)));
+            }
+            System.out.println("  copy stream: " + TimeReport.time(runs, () -> {
+                Streams.copyAndClose(new FilterInputStream(new FileInputStream(file)) {}, new FileOutputStream(copy));
+                return null;
+            }));
+            System.out.println("  copy channel: " + TimeReport.time(runs, () -> {
+                Streams.copyAndClose(new FileInputStream(file), new FileOutputStream(copy));
+                return null;
+            }));
+            System.out.println("  regex over map: " + TimeReport.time(runs, () -> Regex.regex("ERROR").findMatches(map(file)).size()));
+            file.delete();
+            copy.delete();
+        }
+    }
+
+    // A channel whose size() is wrong, as for /proc files (0) or a file appended to since it was asked
+    private static class ReportedSizeChannel extends FileChannel {
+        private final FileChannel channel;
+        private final long size;
+
+        private ReportedSizeChannel(FileChannel channel, long size) {
+            this.channel = channel;
+            this.size = size;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return size;
+        }
+
+        @Override
+        public int read(ByteBuffer destination) throws IOException {
+            return channel.read(destination);
+        }
+
+        @Override
+        public long read(ByteBuffer[] destinations, int offset, int length) throws IOException {
+            return channel.read(destinations, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            return channel.write(source);
+        }
+
+        @Override
+        public long write(ByteBuffer[] sources, int offset, int length) throws IOException {
+            return channel.write(sources, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return channel.position();
+        }
+
+        @Override
+        public FileChannel position(long position) throws IOException {
+            channel.position(position);
+            return this;
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            channel.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            channel.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return channel.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel source, long position, long count) throws IOException {
+            return channel.transferFrom(source, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer destination, long position) throws IOException {
+            return channel.read(destination, position);
+        }
+
+        @Override
+        public int write(ByteBuffer source, long position) throws IOException {
+            return channel.write(source, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return channel.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return channel.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return channel.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            channel.close();
+        }
+    }
 }
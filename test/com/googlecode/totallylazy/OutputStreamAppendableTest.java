@@ -0,0 +1,69 @@
+package com.googlecode.totallylazy;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.totallylazy.OutputStreamAppendable.outputStreamAppendable;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class OutputStreamAppendableTest {
+    @Test
+    public void encodesTheSameAsString() throws Exception {
+        String value = "Hello é€ 😀 lone \ud83d high and \ude00 low \ud83d";
+        for (int threshold = 1; threshold < 10; threshold++) {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            OutputStreamAppendable appendable = outputStreamAppendable(stream, threshold);
+            for (int i = 0; i < value.length(); i++) appendable.append(value.charAt(i));
+            appendable.close();
+            assertThat(new String(stream.toByteArray(), UTF_8), is(new String(value.getBytes(UTF_8), UTF_8)));
+        }
+    }
+
+    @Test
+    public void writesAndFlushesEachTimeTheThresholdIsReached() throws Exception {
+        final List<Integer> flushed = new ArrayList<Integer>();
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        OutputStream counting = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                stream.write(b);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                flushed.add(stream.size());
+            }
+        };
+        OutputStreamAppendable appendable = outputStreamAppendable(counting, 8);
+        appendable.append("0123456789ABC");
+        assertThat(flushed, is(Arrays.asList(8)));
+        appendable.flush();
+        assertThat(stream.toString("UTF-8"), is("0123456789ABC"));
+    }
+
+    @Test
+    public void canFinishWithoutClosingTheStream() throws Exception {
+        final boolean[] closed = {false};
+        ByteArrayOutputStream stream = new ByteArrayOutputStream() {
+            @Override
+            public void close() throws IOException {
+                closed[0] = true;
+            }
+        };
+        OutputStreamAppendable appendable = outputStreamAppendable(stream);
+        appendable.append("lone \ud83d");
+        appendable.flush();
+        assertThat(stream.size(), is(5));
+        appendable.finish();
+        assertThat(new String(stream.toByteArray(), UTF_8), is("lone ?"));
+        assertThat(closed[0], is(false));
+    }
+}
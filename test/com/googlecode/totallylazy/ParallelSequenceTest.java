@@ -0,0 +1,80 @@
+package com.googlecode.totallylazy;
+
+import com.googlecode.totallylazy.numbers.Numbers;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static com.googlecode.totallylazy.Callables.toString;
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.totallylazy.matchers.IterableMatcher.hasExactly;
+import static com.googlecode.totallylazy.numbers.Numbers.even;
+import static com.googlecode.totallylazy.numbers.Numbers.range;
+import static com.googlecode.totallylazy.numbers.Numbers.sum;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class ParallelSequenceTest {
+    private final Sequence<Number> numbers = sequence(range(1, 10000).toList());
+    private final Callable1<Number, Number> moduloThree = new Callable1<Number, Number>() {
+        @Override
+        public Number call(Number number) throws Exception {
+            return number.intValue() % 3;
+        }
+    };
+
+    @Test
+    public void reducesInParallelWithACombiner() throws Exception {
+        assertThat(numbers.parallel().sized(), is(true));
+        assertThat(numbers.parallel().reduce(sum()), is((Number) 50005000));
+        assertThat(numbers.parallel().fold(5, sum()), is((Number) 50005005));
+    }
+
+    @Test
+    public void mapAndFilterArePerformedPerChunkInOrder() throws Exception {
+        ParallelSequence<String> strings = numbers.parallel().filter(even()).map(toString);
+        assertThat(strings.reduce(Strings.join), is(numbers.filter(even()).map(toString).reduce(Strings.join)));
+        assertThat(strings.take(3), hasExactly("2", "4", "6"));
+    }
+
+    @Test
+    public void groupByPreservesSourceOrder() throws Exception {
+        Sequence<Group<Number, Number>> groups = numbers.parallel().groupBy(moduloThree);
+        assertThat(groups.map(Group.functions.<Number, Number>key()), hasExactly((Number) 1, 2, 0));
+        assertThat(groups.head(), is(numbers.groupBy(moduloThree).head()));
+        Map<Number, List<Number>> map = numbers.parallel().toMap(moduloThree);
+        assertThat(map, is(numbers.toMap(moduloThree)));
+    }
+
+    @Test
+    public void sortIsStable() throws Exception {
+        Sequence<Pair<Integer, Integer>> pairs = numbers.map(new Callable1<Number, Pair<Integer, Integer>>() {
+            @Override
+            public Pair<Integer, Integer> call(Number number) throws Exception {
+                return pair(number.intValue() % 7, number.intValue());
+            }
+        }).realise();
+        assertThat(pairs.parallel().sortBy(Callables.<Integer>first()), is(pairs.sortBy(Callables.<Integer>first())));
+        assertThat(numbers.parallel().sortBy(Numbers.descending()).head(), is((Number) 10000));
+    }
+
+    @Test
+    public void fallsBackToSequentialForUnsizedSources() throws Exception {
+        ParallelSequence<Number> parallel = range(1, 100).parallel();
+        assertThat(parallel.sized(), is(false));
+        assertThat(parallel.map(Numbers.increment).reduce(sum()), is((Number) 5150));
+        assertThat(range(1).parallel().filter(even()).take(2), hasExactly((Number) 2, 4));
+    }
+
+    @Test
+    public void nonCombinersAreFoldedSequentially() throws Exception {
+        assertThat(sequence("a", "b", "c").parallel().fold("", new Callable2<String, String, String>() {
+            @Override
+            public String call(String accumulator, String value) throws Exception {
+                return value + accumulator;
+            }
+        }), is("cba"));
+    }
+}
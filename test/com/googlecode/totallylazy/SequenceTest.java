@@ -688,6 +688,53 @@ public class SequenceTest {
         executorService.shutdown();
     }
 
+    @Test
+    public void supportsConcurrentMapWithBoundedWindow() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maximum = new AtomicInteger();
+        Sequence<Number> result = range(1, 50).mapConcurrently(new Callable1<Number, Number>() {
+            @Override
+            public Number call(Number number) throws Exception {
+                int now = running.incrementAndGet();
+                while (true) {
+                    int max = maximum.get();
+                    if (now <= max || maximum.compareAndSet(max, now)) break;
+                }
+                Thread.sleep(50 - number.intValue());
+                running.decrementAndGet();
+                return number;
+            }
+        }, 4);
+        assertThat(result, is(range(1, 50)));
+        assertThat(maximum.get() <= 4, is(true));
+    }
+
+    @Test
+    public void boundedConcurrentMapIsLazy() throws Exception {
+        final AtomicInteger called = new AtomicInteger();
+        Sequence<Number> result = range(1).mapConcurrently(new Callable1<Number, Number>() {
+            @Override
+            public Number call(Number number) throws Exception {
+                called.incrementAndGet();
+                return number;
+            }
+        }, 3);
+        assertThat(result.take(5), is(range(1, 5)));
+        assertThat(called.get() <= 8, is(true));
+    }
+
+    @Test
+    public void supportsUnorderedConcurrentMap() throws Exception {
+        Sequence<Number> result = range(1, 20).mapConcurrentlyUnordered(new Callable1<Number, Number>() {
+            @Override
+            public Number call(Number number) throws Exception {
+                Thread.sleep(20 - number.intValue());
+                return number;
+            }
+        }, 5);
+        assertThat(result.sort(Numbers.ascending()), is(range(1, 20)));
+    }
+
     @Test
     public void mapIsLazy() throws Exception {
         Iterable<Integer> result = sequence(returns(1), callThrows(new Exception(), Integer.class)).
@@ -0,0 +1,87 @@
+package com.googlecode.totallylazy;
+
+import com.googlecode.totallylazy.callables.TimeReport;
+import com.googlecode.totallylazy.iterators.ByteRecordIterator;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+
+import static com.googlecode.totallylazy.Closeables.using;
+import static com.googlecode.totallylazy.Files.temporaryFile;
+import static com.googlecode.totallylazy.Sequences.repeat;
+import static com.googlecode.totallylazy.Strings.bytes;
+import static com.googlecode.totallylazy.matchers.IterableMatcher.hasExactly;
+import static com.googlecode.totallylazy.numbers.Numbers.sum;
+import static java.nio.charset.StandardCharsets.UTF_16;
+import static java.nio.charset.StandardCharsets.UTF_16LE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class StreamsTest {
+    @Test
+    public void splitsRecordsOnADelimiter() throws Exception {
+        assertThat(Streams.records(new StringReader("a\n\nb\n"), "\n"), hasExactly("a", "", "b"));
+        assertThat(Streams.records(new StringReader("a||b|c||"), "||"), hasExactly("a", "b|c"));
+        assertThat(Streams.records(new StringReader(""), "\n").isEmpty(), is(true));
+    }
+
+    @Test
+    public void splitsRecordsLongerThanTheBuffer() throws Exception {
+        String record = repeat("x").take(20000).toString("");
+
+        assertThat(Streams.records(new StringReader(record + "<>" + record + "<>"), "<>"), hasExactly(record, record));
+    }
+
+    @Test
+    public void splitsFixedWidthRecords() throws Exception {
+        assertThat(Streams.records(new StringReader("abcdefg"), 3), hasExactly("abc", "def", "g"));
+    }
+
+    @Test
+    public void canInspectRecordsWithoutCopyingThem() throws Exception {
+        Number total = Streams.recordViews(new StringReader("one,three,seven"), ",").map(CharSequence::length).reduce(sum());
+
+        assertThat(total, is((Number) 13));
+    }
+
+    @Test
+    public void splitsBytesBeforeDecoding() throws Exception {
+        String record = repeat("\u00e9\u2603").take(5000).toString("");
+        ByteArrayInputStream stream = new ByteArrayInputStream(bytes("caf\u00e9\r\n" + record + "\r\n\u2603"));
+
+        assertThat(Streams.records(stream, "\r\n"), hasExactly("caf\u00e9", record, "\u2603"));
+    }
+
+    @Test
+    public void decodesCharsetsThatCanNotBeSplitOnBytes() throws Exception {
+        String text = "caf\u00e9\n\u2603\n\u010a";
+        assertThat(Streams.records(new ByteArrayInputStream(text.getBytes(UTF_16)), "\n", UTF_16), hasExactly("caf\u00e9", "\u2603", "\u010a"));
+        assertThat(Streams.records(new ByteArrayInputStream(text.getBytes(UTF_16LE)), "\n", UTF_16LE), hasExactly("caf\u00e9", "\u2603", "\u010a"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void byteRecordsRejectCharsetsThatCanNotBeSplitOnBytes() throws Exception {
+        ByteRecordIterator.delimited(new ByteArrayInputStream(new byte[0]), "\n", UTF_16);
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void readsRecordsFasterThanLines() throws Exception {
+        final File file = temporaryFile();
+        using(new RandomAccessFile(file, "rw"), (RandomAccessFile f) -> {
+            byte[] line = bytes("2014-01-01 12:00:00 INFO [main] some log line that is mostly ascii \u00e9\n");
+            for (int i = 0; i < 1000000; i++) f.write(line);
+            return null;
+        });
+        System.out.println("lines: " + TimeReport.time(10, () -> Streams.lines(file).size()));
+        System.out.println("records: " + TimeReport.time(10, () -> Files.records(file, "\n").size()));
+        System.out.println("reader records: " + TimeReport.time(10, () -> Streams.records(Streams.inputStreamReader(new FileInputStream(file)), "\n").size()));
+        System.out.println("record views: " + TimeReport.time(10, () -> Streams.recordViews(Streams.inputStreamReader(new FileInputStream(file)), "\n").size()));
+        file.delete();
+    }
+}
@@ -1,7 +1,9 @@
 package com.googlecode.totallylazy;
 
+import org.junit.Ignore;
 import org.junit.Test;
 
+import static com.googlecode.totallylazy.Functions.returns;
 import static com.googlecode.totallylazy.Pair.pair;
 import static com.googlecode.totallylazy.Quadruple.quadruple;
 import static com.googlecode.totallylazy.Triple.triple;
@@ -37,4 +39,72 @@ public class TupleTest {
         assertThat(Triple.leftShift(triple(1, 2, 3), 4), is(triple(2, 3, 4)));
     }
 
+    @Test
+    public void mappingAPairIsStillLazy() throws Exception {
+        final int[] count = {0};
+        Pair<Integer, String> mapped = pair(1, "Blah").map(new Callable1<Integer, Integer>() {
+            @Override
+            public Integer call(Integer value) throws Exception {
+                count[0]++;
+                return value + 1;
+            }
+        });
+        assertThat(count[0], is(0));
+        assertThat(mapped, is(pair(2, "Blah")));
+        assertThat(mapped.first(), is(2));
+        assertThat(count[0], is(1));
+    }
+
+    @Test
+    public void aStrictPairOnlyHoldsItsTwoValues() throws Exception {
+        int fields = 0;
+        for (Class<?> aClass = pair(1, 2).getClass(); aClass != Object.class; aClass = aClass.getSuperclass())
+            fields += aClass.getDeclaredFields().length;
+        assertThat(fields, is(2));
+    }
+
+    @Test
+    public void supportsNullValues() throws Exception {
+        assertThat(pair(null, "Blah").first(), is((Object) null));
+        assertThat(pair(null, "Blah"), is(Pair.<Object, String>pair(returns(null), returns("Blah"))));
+    }
+
+    @Test
+    @Ignore("Manual Performance Tests")
+    public void bytesPerPair() throws Exception {
+        final int size = 1000000;
+        for (int i = 0; i < 5; i++) {
+            System.out.println("Lazy pair: " + bytesPerPair(size, new Callable1<Integer, Pair<Integer, Integer>>() {
+                @Override
+                public Pair<Integer, Integer> call(Integer value) throws Exception {
+                    return pair(returns(value), returns(value));
+                }
+            }));
+            System.out.println("Strict pair: " + bytesPerPair(size, new Callable1<Integer, Pair<Integer, Integer>>() {
+                @Override
+                public Pair<Integer, Integer> call(Integer value) throws Exception {
+                    return pair(value, value);
+                }
+            }));
+        }
+    }
+
+    private static long bytesPerPair(int size, Callable1<Integer, Pair<Integer, Integer>> create) throws Exception {
+        Integer value = 42;
+        Object[] pairs = new Object[size];
+        long before = usedMemory();
+        for (int i = 0; i < size; i++) pairs[i] = create.call(value);
+        long after = usedMemory();
+        assertThat(pairs[size - 1], is((Object) pair(value, value)));
+        return (after - before) / size;
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
 }
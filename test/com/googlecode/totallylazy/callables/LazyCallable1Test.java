@@ -2,14 +2,28 @@ package com.googlecode.totallylazy.callables;
 
 import com.googlecode.totallylazy.Function1;
 import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.time.SettableClock;
 import org.junit.Test;
 
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import static com.googlecode.totallylazy.Callers.callConcurrently;
+import static com.googlecode.totallylazy.Functions.identity;
 import static com.googlecode.totallylazy.callables.CountingCallable1.counting;
+import static com.googlecode.totallylazy.callables.LazyCallable1.expiring;
 import static com.googlecode.totallylazy.callables.LazyCallable1.lazy;
+import static com.googlecode.totallylazy.callables.LazyCallable1.leastFrequentlyUsed;
+import static com.googlecode.totallylazy.callables.LazyCallable1.leastRecentlyUsed;
+import static com.googlecode.totallylazy.matchers.IterableMatcher.hasExactly;
+import static com.googlecode.totallylazy.time.Seconds.add;
 import static com.googlecode.totallylazy.matchers.NumberMatcher.is;
+import static com.googlecode.totallylazy.matchers.NumberMatcher.lessThan;
 import static com.googlecode.totallylazy.numbers.Numbers.increment;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.nullValue;
 
 public class LazyCallable1Test {
     @Test
@@ -36,4 +50,172 @@ public class LazyCallable1Test {
         assertThat(lazyCallable.call(0), is(1));
         assertThat(counting.count(0), is(1));
     }
+
+    @Test
+    public void slowArgumentsDoNotBlockOtherArguments() throws Exception {
+        final CountingCallable1<Number, Number> counting = counting(increment);
+        final LazyCallable1<Number, Number> lazy = lazy(new Function1<Number, Number>() {
+            @Override
+            public Number call(Number number) throws Exception {
+                if (number.intValue() == 1) Thread.sleep(500);
+                return counting.call(number);
+            }
+        });
+
+        long start = System.nanoTime();
+        callConcurrently(lazy.deferApply(1));
+        assertThat(lazy.call(2), is(3));
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(500));
+    }
+
+    @Test
+    public void remembersNullArgumentsAndResults() throws Exception {
+        CountingCallable1<Object, Object> counting = counting(identity());
+        LazyCallable1<Object, Object> lazy = lazy(counting);
+
+        assertThat(lazy.call(null), nullValue());
+        assertThat(lazy.call(null), nullValue());
+        assertThat(counting.count(null), is(1));
+    }
+
+    @Test
+    public void countsHitsAndMisses() throws Exception {
+        LazyCallable1<Number, Number> lazy = lazy(increment);
+        lazy.call(1);
+        lazy.call(1);
+        lazy.call(2);
+        assertThat(lazy.hits(), is(1L));
+        assertThat(lazy.misses(), is(2L));
+        assertThat(lazy.evictions(), is(0L));
+    }
+
+    @Test
+    public void canForget() throws Exception {
+        CountingCallable1<Number, Number> counting = counting(increment);
+        LazyCallable1<Number, Number> lazy = lazy(counting);
+        lazy.call(0);
+        lazy.forget();
+        lazy.call(0);
+        assertThat(counting.count(0), is(2));
+        assertThat(lazy.size(), is(1));
+    }
+
+    @Test
+    public void canEvictLeastRecentlyUsed() throws Exception {
+        CountingCallable1<Number, Number> counting = counting(increment);
+        LazyCallable1<Number, Number> lazy = leastRecentlyUsed(counting, 2);
+        lazy.call(1);
+        Thread.sleep(1);
+        lazy.call(2);
+        Thread.sleep(1);
+        lazy.call(1);
+        Thread.sleep(1);
+        lazy.call(3);
+
+        assertThat(lazy.size(), is(2));
+        assertThat(lazy.evictions(), is(1L));
+        lazy.call(1);
+        assertThat(counting.count(1), is(1));
+        lazy.call(2);
+        assertThat(counting.count(2), is(2));
+    }
+
+    @Test
+    public void canEvictLeastFrequentlyUsed() throws Exception {
+        CountingCallable1<Number, Number> counting = counting(increment);
+        LazyCallable1<Number, Number> lazy = leastFrequentlyUsed(counting, 2);
+        lazy.call(1);
+        lazy.call(1);
+        lazy.call(2);
+        lazy.call(2);
+        lazy.call(2);
+        lazy.call(3);
+
+        assertThat(lazy.size(), is(2));
+        lazy.call(2);
+        lazy.call(3);
+        assertThat(counting.count(2), is(1));
+        assertThat(counting.count(3), is(1));
+        lazy.call(1);
+        assertThat(counting.count(1), is(2));
+    }
+
+    @Test
+    public void canBoundByWeight() throws Exception {
+        LazyCallable1<Number, Number> lazy = leastRecentlyUsed(increment, identity(Number.class), 10);
+        lazy.call(2);
+        lazy.call(4);
+        assertThat(lazy.size(), is(2));
+        lazy.call(5);
+        assertThat(lazy.size(), is(1));
+        assertThat(lazy.evictions(), is(2L));
+    }
+
+    @Test
+    public void canExpireValues() throws Exception {
+        SettableClock clock = new SettableClock();
+        CountingCallable1<Number, Number> counting = counting(increment);
+        LazyCallable1<Number, Number> lazy = expiring(counting, clock, 10, TimeUnit.SECONDS);
+
+        lazy.call(0);
+        clock.now(add(clock.now(), 9));
+        lazy.call(0);
+        assertThat(counting.count(0), is(1));
+        clock.now(add(clock.now(), 1));
+        lazy.call(0);
+        assertThat(counting.count(0), is(2));
+        assertThat(lazy.evictions(), is(1L));
+    }
+
+    @Test
+    public void dropsExpiredValuesThatAreNeverAskedForAgain() throws Exception {
+        SettableClock clock = new SettableClock();
+        LazyCallable1<Number, Number> lazy = expiring(increment, clock, 10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 100; i++) lazy.call(i);
+        assertThat(lazy.size(), is(100));
+        clock.now(add(clock.now(), 10));
+        lazy.call(100);
+        assertThat(lazy.size(), is(1));
+        assertThat(lazy.evictions(), is(100L));
+    }
+
+    @Test
+    public void closesValuesItDrops() throws Exception {
+        SettableClock clock = new SettableClock();
+        final List<Integer> closed = new ArrayList<Integer>();
+        Function1<Integer, Closeable> closeable = new Function1<Integer, Closeable>() {
+            @Override
+            public Closeable call(final Integer number) throws Exception {
+                return () -> closed.add(number);
+            }
+        };
+        LazyCallable1<Integer, Closeable> bounded = leastRecentlyUsed(closeable, 1);
+        bounded.call(1);
+        bounded.call(2);
+        assertThat(closed, hasExactly(1));
+
+        LazyCallable1<Integer, Closeable> expiring = expiring(closeable, clock, 10, TimeUnit.SECONDS);
+        expiring.call(3);
+        clock.now(add(clock.now(), 10));
+        expiring.call(3);
+        assertThat(closed, hasExactly(1, 3));
+    }
+
+    @Test
+    public void timeToLiveStartsOnceTheValueIsComputed() throws Exception {
+        final SettableClock clock = new SettableClock();
+        CountingCallable1<Number, Number> counting = counting(increment);
+        LazyCallable1<Number, Number> lazy = expiring(new Function1<Number, Number>() {
+            @Override
+            public Number call(Number number) throws Exception {
+                clock.now(add(clock.now(), 20));
+                return counting.call(number);
+            }
+        }, clock, 10, TimeUnit.SECONDS);
+
+        lazy.call(0);
+        lazy.call(0);
+        assertThat(counting.count(0), is(1));
+    }
 }
@@ -0,0 +1,82 @@
+package com.googlecode.totallylazy.collections;
+
+import com.googlecode.totallylazy.Sequence;
+import org.junit.Test;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.collections.PersistentSortedMapTest.asPair;
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.totallylazy.numbers.Numbers.even;
+import static com.googlecode.totallylazy.numbers.Numbers.range;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+
+public class HashTrieMapTest extends MapContract {
+    @Override
+    protected <K extends Comparable<K>, V> MapFactory<K, V, ? extends PersistentMap<K, V>> factory() {
+        return HashTrieMap.<K, V>factory();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void supportsKeysWithTheSameHashCode() throws Exception {
+        PersistentMap<Collision, String> map = HashTrieMap.<Collision, String>hashTrieMap().
+                insert(new Collision("Dan"), "Dan").insert(new Collision("Ray"), "Ray").insert(new Collision("Stu"), "Stu");
+        assertThat(map.size(), is(3));
+        assertThat(map.lookup(new Collision("Ray")), is(some("Ray")));
+        assertThat(map.lookup(new Collision("Matt")), is(none(String.class)));
+        assertThat(map.delete(new Collision("Ray")).values(), containsInAnyOrder("Dan", "Stu"));
+        assertThat(map.delete(new Collision("Dan")).delete(new Collision("Ray")).delete(new Collision("Stu")).isEmpty(), is(true));
+    }
+
+    @Test
+    public void supportsKeysThatOnlyDifferInTheirHighBits() throws Exception {
+        PersistentMap<Integer, String> map = HashTrieMap.<Integer, String>hashTrieMap().insert(1, "1").insert(1 | 1 << 31, "high");
+        assertThat(map.lookup(1 | 1 << 31), is(some("high")));
+        assertThat(map.delete(1).lookup(1 | 1 << 31), is(some("high")));
+        assertThat(map.delete(1).size(), is(1));
+    }
+
+    @Test
+    public void canInsertLookupAndDeleteLotsOfKeys() throws Exception {
+        Sequence<Integer> keys = range(-5000, 5000).safeCast(Integer.class).realise();
+        PersistentMap<Integer, Integer> map = HashTrieMap.hashTrieMap(keys.map(asPair()));
+        assertThat(map.size(), is(10001));
+        for (Integer key : keys) assertThat(map.lookup(key), is(some(key)));
+
+        PersistentMap<Integer, Integer> evens = map;
+        for (Integer key : keys) if (key % 2 != 0) evens = evens.delete(key);
+        assertThat(evens.size(), is(5001));
+        assertThat(evens.lookup(42), is(some(42)));
+        assertThat(evens.lookup(43), is(none(Integer.class)));
+        assertThat(evens, is(HashTrieMap.hashTrieMap(keys.filter(even).map(asPair()))));
+    }
+
+    @Test
+    public void replacingAValueDoesNotChangeTheSize() throws Exception {
+        PersistentMap<Integer, String> map = HashTrieMap.<Integer, String>hashTrieMap().insert(1, "Dan").insert(33, "Ray");
+        assertThat(map.insert(33, "Stu").size(), is(2));
+        assertThat(map.insert(33, "Stu").lookup(33), is(some("Stu")));
+        assertThat(map.insert(1, "Dan"), is(map));
+    }
+
+    private static class Collision {
+        private final String value;
+
+        private Collision(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 42;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Collision && ((Collision) obj).value.equals(value);
+        }
+    }
+}
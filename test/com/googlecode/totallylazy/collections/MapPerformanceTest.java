@@ -41,6 +41,7 @@ public class MapPerformanceTest {
         for (int i = 0; i < 10; i++) {
             System.out.println(TimeReport.time(NUMBER_OF_CALLS, persistentGet(createPersistent(range))));
             System.out.println(TimeReport.time(NUMBER_OF_CALLS, persistentGet(createHash(range))));
+            System.out.println(TimeReport.time(NUMBER_OF_CALLS, persistentGet(createHashTrie(range))));
             System.out.println(TimeReport.time(NUMBER_OF_CALLS, mutableGet(createMutable(range, new HashMap<Integer, Integer>()))));
             System.out.println(TimeReport.time(NUMBER_OF_CALLS, mutableGet(createMutable(range, new java.util.TreeMap<Integer, Integer>()))));
             System.out.println(TimeReport.time(NUMBER_OF_CALLS, mutableGet(createMutable(range, new ConcurrentSkipListMap<Integer, Integer>(), "CSLMap "))));
@@ -55,28 +56,38 @@ public class MapPerformanceTest {
         TimeReport treeMapReport = new TimeReport();
         TimeReport cslMapReport = new TimeReport();
         TimeReport avlTreeReport = new TimeReport();
+        TimeReport hashTreeMapReport = new TimeReport();
+        TimeReport hashTrieMapReport = new TimeReport();
 
         Map<Integer, Integer> hashMap = createMutable(range, new HashMap<Integer, Integer>());
         Map<Integer, Integer> treeMap = createMutable(range, new java.util.TreeMap<Integer, Integer>());
         Map<Integer, Integer> cslMap = createMutable(range, new ConcurrentSkipListMap<Integer, Integer>(), "CSLMap ");
         PersistentMap<Integer, Integer> avlTree = createPersistent(range);
+        PersistentMap<Integer, Integer> hashTreeMap = createHash(range);
+        PersistentMap<Integer, Integer> hashTrieMap = createHashTrie(range);
 
         for (int i = 0; i < 10; i++) {
             timeRemove(NUMBER_OF_CALLS, hashMap, hashMapReport);
             timeRemove(NUMBER_OF_CALLS, treeMap, treeMapReport);
             timeRemove(NUMBER_OF_CALLS, cslMap, cslMapReport);
             time(NUMBER_OF_CALLS, removePersistent(avlTree), avlTreeReport);
+            time(NUMBER_OF_CALLS, removePersistent(hashTreeMap), hashTreeMapReport);
+            time(NUMBER_OF_CALLS, removePersistent(hashTrieMap), hashTrieMapReport);
         }
 
         assertThat(hashMap.size(), is(SIZE));
         assertThat(treeMap.size(), is(SIZE));
         assertThat(cslMap.size(), is(SIZE));
         assertThat(avlTree.size(), is(SIZE));
+        assertThat(hashTreeMap.size(), is(SIZE));
+        assertThat(hashTrieMap.size(), is(SIZE));
         System.out.println();
         System.out.println("HashMap: " + hashMapReport);
         System.out.println("TreeMap: " + treeMapReport);
         System.out.println("CSLMap: " + cslMapReport);
         System.out.println("AvlTree: " + avlTreeReport);
+        System.out.println("HashTreeMap: " + hashTreeMapReport);
+        System.out.println("HashTrieMap: " + hashTrieMapReport);
     }
 
     @Test
@@ -86,28 +97,33 @@ public class MapPerformanceTest {
         TimeReport treeMapReport = new TimeReport();
         TimeReport cslMapReport = new TimeReport();
         TimeReport avlTreeReport = new TimeReport();
+        TimeReport hashTrieMapReport = new TimeReport();
 
         Map<Integer, Integer> hashMap = createMutable(range, new HashMap<Integer, Integer>());
         Map<Integer, Integer> treeMap = createMutable(range, new java.util.TreeMap<Integer, Integer>());
         Map<Integer, Integer> cslMap = createMutable(range, new ConcurrentSkipListMap<Integer, Integer>(), "CSLMap ");
         PersistentMap<Integer, Integer> avlTree = createHash(range);
+        PersistentMap<Integer, Integer> hashTrieMap = createHashTrie(range);
 
         for (int i = 0; i < 10; i++) {
             timePut(NUMBER_OF_CALLS, hashMap, hashMapReport);
             timePut(NUMBER_OF_CALLS, treeMap, treeMapReport);
             timePut(NUMBER_OF_CALLS, cslMap, cslMapReport);
             time(NUMBER_OF_CALLS, persistentPut(avlTree), avlTreeReport);
+            time(NUMBER_OF_CALLS, persistentPut(hashTrieMap), hashTrieMapReport);
         }
 
         assertThat(hashMap.size(), is(SIZE));
         assertThat(treeMap.size(), is(SIZE));
         assertThat(cslMap.size(), is(SIZE));
         assertThat(avlTree.size(), is(SIZE));
+        assertThat(hashTrieMap.size(), is(SIZE));
         System.out.println();
         System.out.println("HashMap: " + hashMapReport);
         System.out.println("TreeMap: " + treeMapReport);
         System.out.println("CSLMap: " + cslMapReport);
         System.out.println("AvlTree: " + avlTreeReport);
+        System.out.println("HashTrieMap: " + hashTrieMapReport);
     }
 
     @SuppressWarnings("unchecked")
@@ -234,6 +250,12 @@ public class MapPerformanceTest {
         return map;
     }
 
+    public static PersistentMap<Integer, Integer> createHashTrie(final Sequence<Integer> range) throws Exception {
+        HashTrieMap<Integer, Integer> map = HashTrieMap.hashTrieMap(range.map(asPair()));
+        System.out.print("HashTrieMap:\t");
+        return map;
+    }
+
 
 
 }
@@ -0,0 +1,100 @@
+package com.googlecode.totallylazy.json;
+
+import com.googlecode.totallylazy.Pair;
+import com.googlecode.totallylazy.callables.TimeReport;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static com.googlecode.totallylazy.Lists.list;
+import static com.googlecode.totallylazy.Sequences.repeat;
+import static com.googlecode.totallylazy.json.JsonParser.parser;
+import static com.googlecode.totallylazy.json.JsonTokenizer.tokenizer;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+public class JsonParserTest {
+    private final String json = "{\"string\" : \"a \\\"quoted\\\" \\u0041\\n\", \"number\": -12.5e2, \"integer\":42,\n" +
+            " \"list\" : [ true, false, null, [], {} ], \"nested\": {\"key\": [1, {\"a\":\"b\"}]}, \"string\": \"last wins\"}";
+
+    @Test
+    public void producesTheSameValuesAsTheGrammar() throws Exception {
+        assertThat(parser(tokenizer(json)).value(), is(Grammar.VALUE.parse(json).value()));
+        assertThat(Json.map(json), is(Grammar.OBJECT.parse(json).value()));
+        assertThat(Json.map(json).get("string"), is((Object) "last wins"));
+        assertThat(Json.object(" \"\\/\\b\\f\\r\\t\" "), is(Grammar.VALUE.parse(" \"\\/\\b\\f\\r\\t\" ").value()));
+        assertThat(Json.object("1"), is((Object) new BigDecimal("1")));
+    }
+
+    @Test
+    public void canReadNumbersAsLongsAndDoubles() throws Exception {
+        List<Object> numbers = parser(tokenizer("[1, -2, 3.5, 1e3, 12345678901234567890]"), true).list();
+        assertThat(numbers, is(list((Object) 1L, -2L, 3.5, 1000.0, new BigDecimal("12345678901234567890"))));
+    }
+
+    @Test
+    public void refillsTheBufferWhenTokensSpanReads() throws Exception {
+        String longString = repeat("x").take(20000).toString("");
+        String json = "[\"" + longString + "\", \"" + longString + "\\u00e9\", 1]";
+        assertThat(parser(tokenizer(new StringReader(json))).list(), is(parser(tokenizer(json)).list()));
+        assertThat(parser(tokenizer(json.toCharArray())).list().get(1), is((Object) (longString + "\u00e9")));
+    }
+
+    @Test
+    public void readsArrayElementsLazily() throws Exception {
+        Iterator<Object> elements = parser(tokenizer(new StringReader("[\"one\", {\"two\": 2}, this is never read"))).elements();
+        assertThat(elements.next(), is((Object) "one"));
+        assertThat(elements.next(), instanceOf(Map.class));
+        assertThat(Json.sequence(new StringReader(" [ ] ")).isEmpty(), is(true));
+    }
+
+    @Test
+    public void readsObjectPairsLazily() throws Exception {
+        Iterator<Pair<String, Object>> pairs = parser(tokenizer(new StringReader("{\"one\": 1, \"two\": [2], this is never read"))).pairs();
+        assertThat(pairs.next(), is(Pair.<String, Object>pair("one", new BigDecimal(1))));
+        assertThat(pairs.next().second(), instanceOf(List.class));
+        assertThat(Json.pairs(new StringReader(" { } ")).isEmpty(), is(true));
+    }
+
+    @Test
+    public void allowsATrailingSeparatorLikeTheGrammar() throws Exception {
+        assertThat(Json.list("[1,]"), is(Grammar.ARRAY.parse("[1,]").value()));
+        assertThat(Json.map("{\"a\":1,}"), is(Grammar.OBJECT.parse("{\"a\":1,}").value()));
+        assertThat(Json.sequence(new StringReader("[1, 2, ]")).size(), is(2));
+        assertThat(Json.pairs(new StringReader("{\"a\":1, }")).size(), is(1));
+    }
+
+    @Test
+    public void reportsWhatWasExpected() throws Exception {
+        assertFails("{\"a\" 1}", "':' expected, Digits encountered.");
+        assertFails("[1,,]", "JSON value expected, Comma encountered.");
+        assertFails("[,]", "JSON value expected, Comma encountered.");
+        assertFails("[1 2]", "',' or ']' expected, Digits encountered.");
+        assertFails("\"open", "'\"' expected, end of input encountered.");
+        assertFails("nul", "'null' expected, end of input encountered.");
+    }
+
+    private void assertFails(String json, String message) {
+        try {
+            Json.object(json);
+            throw new AssertionError("Should have failed: " + json);
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is(message));
+        }
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void isFasterThanTheGrammar() throws Exception {
+        final String json = "{\"vertices\":" + repeat("{\"name\": \"marko\", \"age\": 29, \"_id\": \"1\", \"_type\": \"vertex\", \"weight\": 0.4000000059604645, \"tags\": [\"a\", \"b\\n\"]}").take(50).toString("[", ",", "]") + "}";
+        assertThat(Json.object(json), is(Grammar.VALUE.parse(json).value()));
+        System.out.println("Grammar: " + TimeReport.time(1000, () -> Grammar.VALUE.parse(json).value()));
+        System.out.println("Parser: " + TimeReport.time(1000, () -> parser(tokenizer(json)).value()));
+    }
+}
@@ -1,11 +1,14 @@
 package com.googlecode.totallylazy.json;
 
+import com.googlecode.totallylazy.Pair;
 import com.googlecode.totallylazy.Randoms;
 import com.googlecode.totallylazy.Unchecked;
 import com.googlecode.totallylazy.Uri;
 import com.googlecode.totallylazy.time.Dates;
+import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.Reader;
 import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.Date;
@@ -26,6 +29,65 @@ public class JsonTest {
         assertThat(Json.<String>sequence(new StringReader("[\"one\", \"two\"]")).head(), is("one"));
     }
 
+    @Test
+    public void streamsElementsAndPairsInOrder() throws Exception {
+        assertThat(Json.<Object>sequence(new StringReader("[1, \"two\", [3], {\"four\": 4}]")).size(), is(4));
+        assertThat(Json.<Object>pairs(new StringReader("{\"a\": 1, \"b\": {\"c\": [2]}}")).map(Pair::first).toString(","), is("a,b"));
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void streamingAGigabyteArrayUsesFlatHeap() throws Exception {
+        final String element = "{\"name\": \"marko\", \"age\": 29, \"tags\": [\"a\", \"b\\n\"], \"weight\": 0.4000000059604645}";
+        final long elements = (1L << 30) / (element.length() + 1);
+        Runtime runtime = Runtime.getRuntime();
+        long count = 0;
+        long most = 0;
+        for (Object ignored : Json.sequence(new RepeatingArray(element, elements))) {
+            if (++count % (elements / 10) != 0) continue;
+            System.gc();
+            long used = runtime.totalMemory() - runtime.freeMemory();
+            most = Math.max(most, used);
+            System.out.println(count + " elements, heap used: " + used / 1024 + "KB");
+        }
+        assertThat(count, is(elements));
+        System.out.println("Most heap used: " + most / 1024 + "KB");
+    }
+
+    private static class RepeatingArray extends Reader {
+        private final String first;
+        private final String rest;
+        private final long elements;
+        private long written;
+        private String chunk = "";
+        private int index;
+
+        private RepeatingArray(String element, long elements) {
+            this.first = "[" + element;
+            this.rest = "," + element;
+            this.elements = elements;
+        }
+
+        @Override
+        public int read(char[] buffer, int start, int length) {
+            int read = 0;
+            while (read < length && (index < chunk.length() || nextChunk())) buffer[start + read++] = chunk.charAt(index++);
+            return read == 0 ? -1 : read;
+        }
+
+        private boolean nextChunk() {
+            if (written > elements) return false;
+            chunk = written == elements ? "]" : written == 0 ? first : rest;
+            written++;
+            index = 0;
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
     @Test
     public void supportsParsingToVariousNativeJavaTypes() throws Exception {
         assertThat(Json.<String>map(("{\"root\" : \"text\"}")).get("root"), is("text"));
@@ -1,12 +1,20 @@
 package com.googlecode.totallylazy.json;
 
+import com.googlecode.totallylazy.Record;
 import com.googlecode.totallylazy.Sequence;
+import com.googlecode.totallylazy.callables.TimeReport;
+import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.Date;
 import java.util.Map;
 
+import static com.googlecode.totallylazy.Maps.map;
+import static com.googlecode.totallylazy.Sequences.repeat;
+import static com.googlecode.totallylazy.numbers.Numbers.range;
 import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.collections.PersistentList.constructors.list;
 import static com.googlecode.totallylazy.collections.PersistentSortedMap.constructors.sortedMap;
@@ -78,5 +86,65 @@ public class JsonWriterTest {
         assertThat(actual, is("{\"one\":1,\"two\":2}"));
         assertThat(actual, is(Json.json(values)));
     }
-}
 
+    @Test
+    public void writesALazySequenceToAWriterAFlushAtATime() throws Exception {
+        final int[] flushes = {0};
+        final int[] largestWrite = {0};
+        Writer writer = new StringWriter() {
+            @Override
+            public void write(char[] characters, int offset, int length) {
+                largestWrite[0] = Math.max(largestWrite[0], length);
+                super.write(characters, offset, length);
+            }
+
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+
+        Json.json(repeat("value").take(1000), writer, 64);
+
+        assertThat(writer.toString(), is(Json.json(repeat("value").take(1000))));
+        assertThat(largestWrite[0], is(64));
+        assertThat(flushes[0], is(126));
+    }
+
+    @Test
+    public void canStreamToAnOutputStreamAsUtf8() throws Exception {
+        ByteArrayOutputStream stream = Json.json(sequence("caf\u00e9", "\u2603"), new ByteArrayOutputStream(), 4);
+
+        assertThat(new String(stream.toByteArray(), "UTF-8"), is("[\"caf\u00e9\",\"\u2603\"]"));
+    }
+
+    @Test
+    public void writesEachKindOfValue() throws Exception {
+        Map<String, ?> model = map(
+                "date", new Date(0),
+                "escaped", "\"quoted\"\\\n\t",
+                "null", null,
+                "values", sequence(1.5, false, new StringBuilder("builder").append('!')),
+                "record", new Record() { int key = 2; });
+
+        String actual = JsonWriter.write(model, new StringBuilder()).toString();
+
+        assertThat(actual, is("{\"date\":\"1970-01-01T00:00:00.000Z\"," +
+                "\"escaped\":\"\\\"quoted\\\"\\\\\\n\\t\"," +
+                "\"null\":null," +
+                "\"values\":[1.5,false,\"builder!\"]," +
+                "\"record\":{\"key\":2}}"));
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void writesLargeNestedStructuresQuickly() throws Exception {
+        final Sequence<?> model = range(1, 1000).map(i -> sortedMap(
+                "id", (Object) i,
+                "name", "Name \"" + i + "\"",
+                "tags", list("a", "b", "c"),
+                "child", sortedMap("active", i.intValue() % 2 == 0, "score", i.doubleValue() / 3)
+        )).realise();
+        System.out.println(TimeReport.time(1000, () -> Json.json(model)));
+    }
+}
@@ -113,17 +113,45 @@ public class multiTest {
                 return instance.process("Foo");
             }
         };
-        System.out.println("MultiMethod: " + time(10000, multimethod));
-        System.out.println("Direct: " + time(10000, direct));
-        System.out.println();
-        System.out.println("MultiMethod: " + time(10000, multimethod));
-        System.out.println("Direct: " + time(10000, direct));
-        System.out.println();
-        System.out.println("MultiMethod: " + time(10000, multimethod));
-        System.out.println("Direct: " + time(10000, direct));
-        System.out.println();
-        System.out.println("MultiMethod: " + time(10000, multimethod));
-        System.out.println("Direct: " + time(10000, direct));
+        Function<Object> newMultiPerCall = new Function<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return StaticSingle.process((Object) "Foo");
+            }
+        };
+        for (int i = 0; i < 4; i++) {
+            System.out.println("MultiMethod: " + time(10000, multimethod));
+            System.out.println("New multi per call: " + time(10000, newMultiPerCall));
+            System.out.println("Direct: " + time(10000, direct));
+            System.out.println();
+        }
+    }
+
+    @Test
+    public void exceptionsFromTheChosenMethodAreWrappedInALazyException() throws Exception {
+        class Instance {
+            public String process(Object o) { return new multi(){}.method(o); }
+            @multimethod String process(String s) throws Exception { throw new java.io.IOException(s); }
+        }
+        try {
+            new Instance().process((Object) "Boom");
+            throw new AssertionError("Should have thrown");
+        } catch (LazyException e) {
+            assertThat(e.getCause().getMessage(), is("Boom"));
+        }
+    }
+
+    @Test
+    public void instancesCreatedAtTheSameCallSiteShareTheirMethodsButNotTheirInstance() throws Exception {
+        class Instance {
+            private final String name;
+            Instance(String name) { this.name = name; }
+            public String process(Object o) { return new multi(){}.<String>methodOption(o).getOrElse("No match found"); }
+            @multimethod String process(Integer i) { return name + i; }
+        }
+        assertThat(new Instance("a").process((Object) 1), is("a1"));
+        assertThat(new Instance("b").process((Object) 2), is("b2"));
+        assertThat(new Instance("b").process("2"), is("No match found"));
     }
 
     @Test
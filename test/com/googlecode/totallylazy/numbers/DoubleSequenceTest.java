@@ -0,0 +1,33 @@
+package com.googlecode.totallylazy.numbers;
+
+import org.junit.Test;
+
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleUnaryOperator;
+
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.matchers.IterableMatcher.hasExactly;
+import static com.googlecode.totallylazy.numbers.DoubleSequence.doubles;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class DoubleSequenceTest {
+    @Test
+    public void supportsMapAndAggregates() throws Exception {
+        DoubleSequence halves = doubles(1, 2, 3).map(new DoubleUnaryOperator() {
+            @Override
+            public double applyAsDouble(double value) {
+                return value / 2;
+            }
+        });
+        assertThat(halves, hasExactly(0.5, 1.0, 1.5));
+        assertThat(halves.sum(), is(3.0));
+        assertThat(halves.min(), is(some(0.5)));
+        assertThat(halves.mapToInt(new DoubleToIntFunction() {
+            @Override
+            public int applyAsInt(double value) {
+                return (int) Math.round(value);
+            }
+        }).sum(), is(4L));
+    }
+}
@@ -0,0 +1,109 @@
+package com.googlecode.totallylazy.numbers;
+
+import com.googlecode.totallylazy.Function;
+import com.googlecode.totallylazy.callables.TimeReport;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+import static com.googlecode.totallylazy.Option.none;
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.Sequences.repeat;
+import static com.googlecode.totallylazy.Sequences.sequence;
+import static com.googlecode.totallylazy.matchers.IterableMatcher.hasExactly;
+import static com.googlecode.totallylazy.matchers.IterableMatcher.isEmpty;
+import static com.googlecode.totallylazy.matchers.IterableMatcher.startsWith;
+import static com.googlecode.totallylazy.numbers.IntSequence.ints;
+import static com.googlecode.totallylazy.numbers.IntSequence.range;
+import static com.googlecode.totallylazy.numbers.Numbers.sum;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class IntSequenceTest {
+    private static final IntPredicate even = new IntPredicate() {
+        @Override
+        public boolean test(int value) {
+            return value % 2 == 0;
+        }
+    };
+
+    private static final IntUnaryOperator square = new IntUnaryOperator() {
+        @Override
+        public int applyAsInt(int value) {
+            return value * value;
+        }
+    };
+
+    @Test
+    public void supportsRange() throws Exception {
+        assertThat(range(0), startsWith(0, 1, 2, 3));
+        assertThat(range(1, 5), hasExactly(1, 2, 3, 4, 5));
+        assertThat(range(5, 1), hasExactly(5, 4, 3, 2, 1));
+        assertThat(range(0, 5, 2), hasExactly(0, 2, 4));
+        assertThat(range(Integer.MAX_VALUE - 1, Integer.MAX_VALUE), hasExactly(Integer.MAX_VALUE - 1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void supportsMapFilterAndTake() throws Exception {
+        assertThat(range(1, 10).filter(even).map(square), hasExactly(4, 16, 36, 64, 100));
+        assertThat(range(1).map(square).take(3), hasExactly(1, 4, 9));
+        assertThat(ints().filter(even), isEmpty(Integer.class));
+    }
+
+    @Test
+    public void supportsFoldAndAggregates() throws Exception {
+        assertThat(range(1, 5).fold(10, new IntBinaryOperator() {
+            @Override
+            public int applyAsInt(int left, int right) {
+                return left - right;
+            }
+        }), is(-5));
+        assertThat(range(1, 100000).sum(), is(5000050000L));
+        assertThat(ints(3, -1, 7).min(), is(some(-1)));
+        assertThat(ints(3, -1, 7).max(), is(some(7)));
+        assertThat(ints().max(), is(none(Integer.class)));
+        assertThat(range(1, 4).size(), is(4));
+        assertThat(range(1, 40).toArray().length, is(40));
+    }
+
+    @Test
+    public void bridgesToAndFromSequenceOfNumber() throws Exception {
+        assertThat(range(1, 3).boxed(), is(sequence((Number) 1, 2, 3)));
+        assertThat(Numbers.range(1, 3).mapToInt(Numbers.increment).sum(), is(9L));
+        assertThat(range(1, 3).mapToDouble(new java.util.function.IntToDoubleFunction() {
+            @Override
+            public double applyAsDouble(int value) {
+                return value / 2.0;
+            }
+        }).sum(), is(3.0));
+    }
+
+    @Test
+    @Ignore("Manual Performance Tests")
+    public void sumIsQuickerThanBoxedNumbers() throws Exception {
+        final int size = 1000000;
+        for (int i = 0; i < 5; i++) {
+            System.out.println("Numbers.range(1, N).reduce(sum): " + time(new Function<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return Numbers.range(1, size).reduce(sum);
+                }
+            }));
+            System.out.println("IntSequence.range(1, N).sum():   " + time(new Function<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return range(1, size).sum();
+                }
+            }));
+        }
+    }
+
+    private static TimeReport time(Function<Object> function) {
+        TimeReport report = new TimeReport();
+        repeat(function.time(report)).take(10).realise();
+        return report;
+    }
+}
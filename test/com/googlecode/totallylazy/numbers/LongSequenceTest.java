@@ -0,0 +1,43 @@
+package com.googlecode.totallylazy.numbers;
+
+import org.junit.Test;
+
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+import static com.googlecode.totallylazy.Option.some;
+import static com.googlecode.totallylazy.matchers.IterableMatcher.hasExactly;
+import static com.googlecode.totallylazy.numbers.LongSequence.longs;
+import static com.googlecode.totallylazy.numbers.LongSequence.range;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class LongSequenceTest {
+    @Test
+    public void supportsRangeMapAndFilter() throws Exception {
+        assertThat(range(Long.MAX_VALUE - 2, Long.MAX_VALUE), hasExactly(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1, Long.MAX_VALUE));
+        assertThat(range(10, 1, -3).map(new LongUnaryOperator() {
+            @Override
+            public long applyAsLong(long value) {
+                return value * 10;
+            }
+        }).filter(new LongPredicate() {
+            @Override
+            public boolean test(long value) {
+                return value > 10;
+            }
+        }), hasExactly(100L, 70L, 40L));
+    }
+
+    @Test
+    public void sumFailsRatherThanOverflows() throws Exception {
+        assertThat(longs(1, 2, 3).sum(), is(6L));
+        assertThat(longs(5, 9, 2).max(), is(some(9L)));
+        try {
+            longs(Long.MAX_VALUE, 1).sum();
+            throw new AssertionError("Should have overflowed");
+        } catch (ArithmeticException e) {
+            // all good
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.googlecode.totallylazy.numbers;
 
+import com.googlecode.totallylazy.Callable1;
 import com.googlecode.totallylazy.Sequence;
 import com.googlecode.totallylazy.Sequences;
 import com.googlecode.totallylazy.callables.TimeReport;
@@ -45,6 +46,18 @@ public class NumbersTest {
         assertThat(Numbers.add(Num.num(3), Num.num(3)), NumberMatcher.is(6));
     }
 
+    @Test
+    public void sameTypeArithmeticPromotesOnOverflow() throws Exception {
+        assertEquals(Long.class, Numbers.add(Integer.MAX_VALUE, 1).getClass());
+        assertEquals(Long.class, Numbers.subtract(Integer.MIN_VALUE, 1).getClass());
+        assertEquals(Integer.class, Numbers.subtract(5, 7).getClass());
+        assertThat(Numbers.subtract(Long.MIN_VALUE, 1L), NumberMatcher.is(bigInteger(Long.MIN_VALUE).subtract(bigInteger(1))));
+        assertThat(Numbers.add(Long.MAX_VALUE, 1L), NumberMatcher.is(bigInteger(Long.MAX_VALUE).add(bigInteger(1))));
+        assertThat(Numbers.multiply(Long.MAX_VALUE, 2L), NumberMatcher.is(bigInteger(Long.MAX_VALUE).multiply(bigInteger(2))));
+        assertThat(Numbers.compare(2L, 1L), is(1));
+        assertThat(Numbers.lessThan(1, 2), is(true));
+    }
+
     @Test
     public void supportsAverage() throws Exception {
         assertThat(numbers(1, 2, 3, 4).reduce(average), NumberMatcher.is(divide(5, 2)));
@@ -144,6 +157,62 @@ public class NumbersTest {
         assertThat(report.average(), is(lessThan(20)));
     }
 
+    @Test
+    @Ignore("Manual Performance Test")
+    public void mixedTypeArithmeticIsPrettyFast() throws Exception {
+        Number[] ints = range(1, 1024).toArray(Number.class);
+        Number[] longs = range(1, 1024).map(toLong).toArray(Number.class);
+        for (int i = 0; i < 3; i++) {
+            arithmetic("Integer + Integer", ints, ints);
+            arithmetic("Long + Long", longs, longs);
+            arithmetic("Integer + Long", ints, longs);
+            arithmetic("Integer + Double", ints, range(1, 1024).map(toDouble).toArray(Number.class));
+            arithmetic("Long + BigInteger", longs, range(1, 1024).map(toBigInteger).toArray(Number.class));
+            arithmetic("Num + Integer", range(1, 1024).map(toNum).toArray(Number.class), ints);
+        }
+    }
+
+    private void arithmetic(String name, final Number[] xs, final Number[] ys) {
+        TimeReport report = new TimeReport();
+        repeat(time(new Callable1<Object, Object>() {
+            @Override
+            public Object call(Object ignore) throws Exception {
+                long sink = 0;
+                for (int i = 0; i < 100000; i++) {
+                    Number x = xs[i & 1023], y = ys[(i * 7) & 1023];
+                    Number result = Numbers.lessThan(x, y) ? Numbers.add(x, y) : Numbers.multiply(x, y);
+                    sink += Numbers.subtract(result, y).longValue();
+                }
+                return sink;
+            }
+        }, null, report)).take(100).realise();
+        System.out.println(name + ": " + report);
+    }
+
+    private static final Callable1<Number, Number> toLong = new Callable1<Number, Number>() {
+        public Number call(Number number) throws Exception {
+            return number.longValue();
+        }
+    };
+
+    private static final Callable1<Number, Number> toDouble = new Callable1<Number, Number>() {
+        public Number call(Number number) throws Exception {
+            return number.doubleValue();
+        }
+    };
+
+    private static final Callable1<Number, Number> toBigInteger = new Callable1<Number, Number>() {
+        public Number call(Number number) throws Exception {
+            return bigInteger(number);
+        }
+    };
+
+    private static final Callable1<Number, Number> toNum = new Callable1<Number, Number>() {
+        public Number call(Number number) throws Exception {
+            return Num.num(number);
+        }
+    };
+
     @Test
     public void toStringingAnInfiniteListWillTruncateByDefault() throws Exception {
         assertThat(primes().toString(), is(primes().take(100).toString()));
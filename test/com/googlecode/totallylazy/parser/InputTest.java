@@ -0,0 +1,84 @@
+package com.googlecode.totallylazy.parser;
+
+import com.googlecode.totallylazy.callables.TimeReport;
+import com.googlecode.totallylazy.template.ast.Grammar;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import static com.googlecode.totallylazy.Characters.alphaNumeric;
+import static com.googlecode.totallylazy.Segment.constructors.characters;
+import static com.googlecode.totallylazy.Segment.constructors.emptySegment;
+import static com.googlecode.totallylazy.Sequences.repeat;
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.totallylazy.parser.Input.input;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InputTest {
+    @Test
+    public void isASegmentOfCharacters() throws Exception {
+        Input input = input("ABC");
+        assertThat(input.head(), is('A'));
+        assertThat(input.tail(), is(characters("BC")));
+        assertThat(input.drop(3), is(emptySegment(Character.class)));
+        assertThat(input.drop(1).text(2), is("BC"));
+        assertThat(input.has(2), is(true));
+        assertThat(input.has(3), is(false));
+    }
+
+    @Test
+    public void readsAReaderInBlocks() throws Exception {
+        Input input = input(trickle("Hello World", 3));
+        assertThat(input.text(11), is("Hello World"));
+        assertThat(input.drop(6).charAt(2), is('r'));
+        assertThat(input.drop(11).isEmpty(), is(true));
+        assertThat(Parsers.characters(alphaNumeric).parse(input(trickle("Hello World", 2))).value().toString(), is("Hello"));
+    }
+
+    @Test
+    public void fastPathsProduceTheSameResultsAsSegments() throws Exception {
+        assertSame(Parsers.string("ABC"), "ABCD");
+        assertSame(Parsers.string("ABC"), "ABD");
+        assertSame(Parsers.string("ABC"), "AB");
+        assertSame(Parsers.characters(alphaNumeric), "abc1 rest");
+        assertSame(Parsers.isChar('a').many(), "aab");
+        assertSame(Parsers.pattern("\\d{4}/\\d{2}", ""), "1977/01/10");
+        assertSame(Parsers.pattern("\\d{4}/\\d{2}", ""), "1977-01");
+    }
+
+    private static void assertSame(Parser<?> parser, String value) {
+        Result<?> expected = parser.parse(characters(value));
+        Result<?> actual = parser.parse(input(value));
+        assertThat(actual.success(), is(expected.success()));
+        if (expected.success()) {
+            assertThat(actual.value().toString(), is(expected.value().toString()));
+            assertThat(actual.remainder(), is(expected.remainder()));
+        } else {
+            assertThat(actual.message(), is(expected.message()));
+        }
+    }
+
+    private static Reader trickle(String value, final int size) {
+        return new StringReader(value) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, size));
+            }
+        };
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void isFasterThanCharacterSegments() throws Exception {
+        final String json = "{\"vertices\":" + repeat("{\"name\": \"marko\", \"age\": 29, \"_id\": \"1\", \"weight\": 0.4000000059604645, \"tags\": [\"a\", \"b\\n\"]}").take(50).toString("[", ",", "]") + "}";
+        final String template = repeat("Hello $name$, you are $person.age$ years old $format(date, 'yyyy')$ and $items:{ item | $item.name$ }$ ").take(50).toString("");
+        System.out.println("json.Grammar segment: " + TimeReport.time(1000, () -> com.googlecode.totallylazy.json.Grammar.VALUE.parse(characters(json)).value()));
+        System.out.println("json.Grammar input: " + TimeReport.time(1000, () -> com.googlecode.totallylazy.json.Grammar.VALUE.parse(input(json)).value()));
+        System.out.println("template.ast.Grammar segment: " + TimeReport.time(1000, () -> Grammar.TEMPLATE.parse(characters(template)).value()));
+        System.out.println("template.ast.Grammar input: " + TimeReport.time(1000, () -> Grammar.TEMPLATE.parse(input(template)).value()));
+    }
+}
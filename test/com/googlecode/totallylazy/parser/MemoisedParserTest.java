@@ -0,0 +1,66 @@
+package com.googlecode.totallylazy.parser;
+
+import com.googlecode.totallylazy.callables.TimeReport;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static com.googlecode.totallylazy.Sequences.repeat;
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.totallylazy.parser.Parsers.isChar;
+import static com.googlecode.totallylazy.parser.Parsers.or;
+import static com.googlecode.totallylazy.parser.Parsers.packrat;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MemoisedParserTest {
+    // Every level tries the same nested term three times, so without memoisation parsing is O(3^depth)
+    private static Parser<Object> backtracking(boolean memoised) {
+        ReferenceParser<Object> expression = ReferenceParser.reference();
+        Parser<Object> term = Parsers.<Object>or(isChar('a'), expression.between(isChar('('), isChar(')')));
+        Parser<Object> shared = memoised ? term.memoised() : term;
+        return expression.set(or(shared.followedBy(isChar('x')), shared.followedBy(isChar('y')), shared));
+    }
+
+    private static String nested(int depth) {
+        return repeat("(").take(depth).toString("") + "a" + repeat(")").take(depth).toString("");
+    }
+
+    @Test
+    public void givesTheSameResultsAsTheUnderlyingGrammar() throws Exception {
+        String value = nested(6) + "y";
+        assertThat(packrat(backtracking(true)).parse(value).value(), is(backtracking(false).parse(value).value()));
+        assertThat(packrat(backtracking(true)).parse(value).remainder(), is(backtracking(false).parse(value).remainder()));
+        assertThat(packrat(backtracking(true)).parse("(b").failure(), is(true));
+    }
+
+    @Test
+    public void countsHitsAndMissesPerRule() throws Exception {
+        MemoisedParser<Character> a = isChar('a').memoised();
+        Parser<Object> grammar = packrat(Parsers.<Object>or(a.followedBy(isChar('x')), a.followedBy(isChar('y')), a));
+        assertThat(grammar.parse("ay").value(), is((Object) 'a'));
+        assertThat(a.misses(), is(1L));
+        assertThat(a.hits(), is(1L));
+
+        grammar.parse("a");
+        assertThat(a.misses(), is(2L));
+        assertThat(a.hits(), is(3L));
+    }
+
+    @Test
+    public void onlySharesResultsWithinAPackratParse() throws Exception {
+        MemoisedParser<Character> a = isChar('a').memoised();
+        Parser<Object> grammar = Parsers.<Object>or(a.followedBy(isChar('x')), a);
+        grammar.parse("a");
+        assertThat(a.misses(), is(2L));
+        assertThat(a.hits(), is(0L));
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void boundsBacktracking() throws Exception {
+        final String value = nested(10);
+        final Parser<Object> plain = backtracking(false);
+        final Parser<Object> memoised = packrat(backtracking(true));
+        System.out.println("Backtracking: " + TimeReport.time(10, () -> plain.parse(value).value()));
+        System.out.println("Packrat: " + TimeReport.time(10, () -> memoised.parse(value).value()));
+    }
+}
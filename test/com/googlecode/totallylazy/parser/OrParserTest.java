@@ -1,9 +1,18 @@
 package com.googlecode.totallylazy.parser;
 
+import com.googlecode.totallylazy.callables.TimeReport;
+import com.googlecode.totallylazy.template.ast.Grammar;
+import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
 import static com.googlecode.totallylazy.Segment.constructors.characters;
+import static com.googlecode.totallylazy.Sequences.repeat;
+import static com.googlecode.totallylazy.Sequences.sequence;
 import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.totallylazy.parser.Parsers.debug;
 import static com.googlecode.totallylazy.parser.Parsers.or;
 import static com.googlecode.totallylazy.parser.StringParser.string;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -24,4 +33,35 @@ public class OrParserTest {
         assertThat(result1.value(), is("bar"));
         assertThat(result1.remainder(), is(characters("t")));
     }
+
+    @Test
+    public void optimisedOnlyTriesAlternativesThatCanStartWithTheNextCharacter() throws Exception {
+        ByteArrayOutputStream tried = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(tried, true);
+        Parser<String> parser = or(debug(out, "foo", string("foo")), debug(out, "bar", string("bar")), debug(out, "baz", string("baz"))).optimise();
+        assertThat(parser.parse("baz").value(), is("baz"));
+        assertThat(tried(tried), is("bar baz"));
+
+        tried.reset();
+        Result<String> failure = parser.parse("qux");
+        assertThat(failure.message(), is(or(string("foo"), string("bar"), string("baz")).parse("qux").message()));
+        assertThat(tried(tried), is("baz"));
+    }
+
+    private static String tried(ByteArrayOutputStream output) {
+        return sequence(output.toString().split("\n")).map(line -> line.split(" ")[0]).toString(" ");
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void optimisedGrammarsAreFaster() throws Exception {
+        final String json = "{\"vertices\":" + repeat("{\"name\": \"marko\", \"age\": 29, \"_id\": \"1\", \"weight\": 0.4000000059604645, \"tags\": [\"a\", \"b\\n\"]}").take(50).toString("[", ",", "]") + "}";
+        final String template = repeat("Hello $name$, you are $person.age$ years old $format(date, 'yyyy')$ and $items:{ item | $item.name$ }$ ").take(50).toString("");
+        System.out.println("json.Grammar: " + TimeReport.time(1000, () -> com.googlecode.totallylazy.json.Grammar.VALUE.parse(json).value()));
+        System.out.println("template.ast.Grammar: " + TimeReport.time(1000, () -> Grammar.TEMPLATE.parse(template).value()));
+        com.googlecode.totallylazy.json.Grammar.VALUE.optimise();
+        Grammar.TEMPLATE.optimise();
+        System.out.println("json.Grammar optimised: " + TimeReport.time(1000, () -> com.googlecode.totallylazy.json.Grammar.VALUE.parse(json).value()));
+        System.out.println("template.ast.Grammar optimised: " + TimeReport.time(1000, () -> Grammar.TEMPLATE.parse(template).value()));
+    }
 }
@@ -0,0 +1,68 @@
+package com.googlecode.totallylazy.predicates;
+
+import com.googlecode.totallylazy.Characters;
+import com.googlecode.totallylazy.Predicate;
+import com.googlecode.totallylazy.Predicates;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.googlecode.totallylazy.Characters.alphaNumeric;
+import static com.googlecode.totallylazy.Characters.between;
+import static com.googlecode.totallylazy.Characters.notAmong;
+import static com.googlecode.totallylazy.Predicates.not;
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.totallylazy.predicates.CharacterTable.table;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CharacterTableTest {
+    @Test
+    public void lowersCombinationsOfCharacterClassesToOneTable() throws Exception {
+        assertSameAsPredicate(alphaNumeric);
+        assertSameAsPredicate(notAmong("\"\\"));
+        assertSameAsPredicate(Predicates.is('$').or(Predicates.is('}')));
+        assertSameAsPredicate(not(Predicates.is('$').or(Predicates.is('}'))));
+        assertSameAsPredicate(between('a', 'z').and(not(Characters.among("aeiou"))));
+        assertSameAsPredicate(Characters.whitespace.or(Characters.digit));
+    }
+
+    @Test
+    public void canNotLowerArbitraryPredicates() throws Exception {
+        assertThat(table(between('a', 'z').or(new Predicate<Character>() {
+            @Override
+            public boolean matches(Character other) {
+                return false;
+            }
+        })).isEmpty(), is(true));
+        assertThat(table(Predicates.<Character>alwaysTrue()).get().matches('￿'), is(true));
+    }
+
+    @Test
+    public void keepsTheDescriptionOfTheOriginalPredicate() throws Exception {
+        assertThat(table(notAmong("ab")).get().toString(), is(notAmong("ab").toString()));
+    }
+
+    @Test
+    public void onlyFillsInATableFromAPredicateOnFirstUse() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        CharacterTable digits = CharacterTable.characters(new Predicate<Character>() {
+            @Override
+            public boolean matches(Character other) {
+                calls.incrementAndGet();
+                return Character.isDigit(other);
+            }
+        }, "digits");
+        assertThat(calls.get(), is(1));
+
+        assertThat(digits.matches('7'), is(true));
+        assertThat(digits.matches('x'), is(false));
+        assertThat(calls.get(), is(Character.MAX_VALUE + 2));
+    }
+
+    private static void assertSameAsPredicate(Predicate<Character> predicate) {
+        CharacterTable table = table(predicate).get();
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            assertThat(table.matches((char) c), is(predicate.matches((char) c)));
+        }
+    }
+}
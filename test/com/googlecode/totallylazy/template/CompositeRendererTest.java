@@ -0,0 +1,64 @@
+package com.googlecode.totallylazy.template;
+
+import com.googlecode.totallylazy.callables.TimeReport;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import static com.googlecode.totallylazy.Predicates.instanceOf;
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.totallylazy.template.CompositeRenderer.compositeRenderer;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class CompositeRendererTest {
+    private static Renderer<Object> text(String value) {
+        return (instance, appendable) -> appendable.append(value);
+    }
+
+    @Test
+    public void usesTheMostRecentlyAddedMatchingRenderer() throws Exception {
+        CompositeRenderer renderer = compositeRenderer().
+                add(instanceOf(Number.class), text("number")).
+                add(instanceOf(Integer.class), text("integer")).
+                add((Object o) -> Integer.valueOf(2).equals(o), text("two")).
+                add(instanceOf(String.class), text("string"));
+        assertThat(renderer.render(1), is("integer"));
+        assertThat(renderer.render(2), is("two"));
+        assertThat(renderer.render(3), is("integer"));
+        assertThat(renderer.render(1L), is("number"));
+        assertThat(renderer.render("a"), is("string"));
+        assertThat(renderer.render('c'), is("c"));
+        assertThat(renderer.render(null), is(""));
+    }
+
+    @Test
+    public void keepsTheOrderOfPairsAroundOnesThatCanNotMatch() throws Exception {
+        CompositeRenderer renderer = compositeRenderer().
+                add(instanceOf(Integer.class), text("integer")).
+                add(instanceOf(String.class), text("string")).
+                add((Object o) -> Integer.valueOf(2).equals(o), text("two")).
+                add(instanceOf(String.class), text("another string"));
+        assertThat(renderer.render(1), is("integer"));
+        assertThat(renderer.render(2), is("two"));
+        assertThat(renderer.render("a"), is("another string"));
+    }
+
+    @Test
+    public void addingARendererDoesNotChangeTheOriginal() throws Exception {
+        CompositeRenderer original = compositeRenderer().add(instanceOf(Number.class), text("number"));
+        assertThat(original.render(1), is("number"));
+        CompositeRenderer added = original.add(instanceOf(Integer.class), text("integer"));
+        assertThat(added.render(1), is("integer"));
+        assertThat(original.render(1), is("number"));
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void indexesClassBasedPredicates() throws Exception {
+        CompositeRenderer renderer = compositeRenderer();
+        for (int i = 0; i < 50; i++) renderer = renderer.add(instanceOf(Thread.class), text("thread"));
+        final CompositeRenderer many = renderer;
+        System.out.println(TimeReport.time(100000, () -> many.render(1)));
+        final CompositeRenderer behindAnotherPredicate = renderer.add((Object o) -> false, text("never"));
+        System.out.println(TimeReport.time(100000, () -> behindAnotherPredicate.render(1)));
+    }
+}
@@ -3,10 +3,14 @@ package com.googlecode.totallylazy.template;
 import org.hamcrest.Matchers;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
 import java.util.Map;
 
 import static com.googlecode.totallylazy.Lists.list;
 import static com.googlecode.totallylazy.Maps.map;
+import static com.googlecode.totallylazy.Sequences.repeat;
 import static com.googlecode.totallylazy.matchers.Matchers.is;
 import static com.googlecode.totallylazy.template.Template.template;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -31,6 +35,27 @@ public class TemplateTest {
         assertThat(result, Matchers.is("Hello Dan ... Your last name is Bodart"));
     }
 
+    @Test
+    public void asksOtherRenderersForASubTemplateEachTime() throws Exception {
+        final String[] greeting = {"Hello"};
+        Renderers renderers = new Renderers() {
+            @Override
+            public Renderer<Object> get(String name) {
+                String current = greeting[0];
+                return (instance, appendable) -> appendable.append(current);
+            }
+
+            @Override
+            public Appendable render(Object instance, Appendable appendable) throws IOException {
+                return appendable.append(String.valueOf(instance));
+            }
+        };
+        Template template = template("$greeting()$ $name$", renderers);
+        assertThat(template.render(map("name", "Dan")), is("Hello Dan"));
+        greeting[0] = "Goodbye";
+        assertThat(template.render(map("name", "Dan")), is("Goodbye Dan"));
+    }
+
     @Test
     public void supportsMappingList() throws Exception {
         Template template = template("$users:{ user | Hello $user$ }$");
@@ -94,4 +119,34 @@ public class TemplateTest {
         String result = template.render(map("root", null));
         assertThat(result, is(""));
     }
+
+    @Test
+    public void supportsMappingIterators() throws Exception {
+        Template template = template("$users:{ user, index | $index$:$user$ }$");
+        String result = template.render(map("users", list("Dan", "Bob").iterator()));
+        assertThat(result, is("0:Dan 1:Bob "));
+    }
+
+    @Test
+    public void canStreamToAnOutputStream() throws Exception {
+        Template template = template("$users:{ user | Hello $user$ }$");
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        template.renderTo(map("users", repeat("Dän").take(1000)), stream, 16);
+        assertThat(stream.toString("UTF-8"), is(repeat("Hello Dän ").take(1000).toString("")));
+    }
+
+    @Test
+    public void streamsATrailingUnpairedSurrogateAsUtf8Would() throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        template("$name$").renderTo(map("name", "Dan\ud83d"), stream);
+        assertThat(stream.toString("UTF-8"), is(new String("Dan\ud83d".getBytes("UTF-8"), "UTF-8")));
+    }
+
+    @Test
+    public void canRenderToAPrintStreamAsAnAppendable() throws Exception {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(stream, true, "UTF-8");
+        template("Hello $name$").render(map("name", "Dan"), printStream);
+        assertThat(stream.toString("UTF-8"), is("Hello Dan"));
+    }
 }
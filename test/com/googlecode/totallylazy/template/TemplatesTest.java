@@ -1,11 +1,19 @@
 package com.googlecode.totallylazy.template;
 
+import com.googlecode.totallylazy.Sequence;
+import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
 import static com.googlecode.totallylazy.Assert.assertThat;
 import static com.googlecode.totallylazy.Maps.map;
 import static com.googlecode.totallylazy.Predicates.is;
+import static com.googlecode.totallylazy.Sequences.repeat;
 import static com.googlecode.totallylazy.callables.TimeReport.time;
+import static com.googlecode.totallylazy.numbers.Numbers.range;
 import static com.googlecode.totallylazy.template.Templates.defaultTemplates;
 import static com.googlecode.totallylazy.template.Templates.templates;
 
@@ -40,4 +48,60 @@ public class TemplatesTest {
         String result = template.render(map("name", "Dan"));
         assertThat(result, is("Say Hello Dan"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void usesRenderersAddedAfterATemplateHasRendered() throws Exception {
+        Templates templates = templates();
+        Template template = Template.template("Hello $shout(first)$", templates);
+        assertThat(template.render(map("first", "Dan")), is("Hello Dan"));
+        templates.add("shout", (String s) -> s.toUpperCase());
+        assertThat(template.render(map("first", "Dan")), is("Hello DAN"));
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void renderThroughput() throws Exception {
+        Templates templates = defaultTemplates(getClass());
+        Template template = Template.template("$users:{ user, index | $index$: $html(user.name)$ is $user.age$ $hello(user)$\n }$", templates);
+        Map<String, Object> context = map("users", range(1, 100).map(i -> map("name", "<Dan " + i + ">", "age", i)).toList());
+        System.out.println(time(1000, () -> template.render(context)));
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void streamingRenderStartsSoonerAndHoldsLess() throws Exception {
+        Template template = Template.template("$rows:{ row, index | <tr><td>$index$</td><td>$row$</td></tr>\n }$");
+        Sequence<String> rows = repeat("Some row of text that is about this long").take(200000);
+        long[] firstByte = new long[1];
+        long[] peak = new long[1];
+        OutputStream sink = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) throws IOException {
+                if (firstByte[0] == 0) firstByte[0] = System.nanoTime();
+                peak[0] = Math.max(peak[0], used());
+            }
+        };
+
+        System.gc();
+        long start = System.nanoTime();
+        sink.write(template.render(map("rows", rows)).getBytes("UTF-8"));
+        System.out.printf("StringBuilder: first byte %dms, peak heap %dMB%n", (firstByte[0] - start) / 1000000, peak[0] >> 20);
+
+        firstByte[0] = 0;
+        peak[0] = 0;
+        System.gc();
+        start = System.nanoTime();
+        template.renderTo(map("rows", rows), sink);
+        System.out.printf("OutputStream: first byte %dms, peak heap %dMB%n", (firstByte[0] - start) / 1000000, peak[0] >> 20);
+    }
+
+    private static long used() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,65 @@
+package com.googlecode.totallylazy.xml;
+
+import com.googlecode.totallylazy.Xml;
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.xpath.XPathConstants;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.googlecode.totallylazy.matchers.Matchers.is;
+import static com.googlecode.totallylazy.xml.XPathExpressions.xpathExpressions;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class XPathExpressionsTest {
+    private final Document document = Xml.document("<root><a>1</a><a>2</a></root>");
+
+    @Test
+    public void sharesCompiledExpressionsBetweenThreads() throws Exception {
+        XPathExpressions expressions = xpathExpressions(10);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertThat(expressions.evaluate("count(//a)", document, XPathConstants.NUMBER), is((Object) 2.0));
+            assertThat(executor.submit(() -> expressions.evaluate("count(//a)", document, XPathConstants.NUMBER)).get(), is((Object) 2.0));
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(expressions.compiles(), is(1L));
+        assertThat(expressions.misses(), is(1L));
+        assertThat(expressions.hits(), is(1L));
+    }
+
+    @Test
+    public void dropsTheLeastRecentlyUsedExpressions() throws Exception {
+        XPathExpressions expressions = xpathExpressions(1);
+        expressions.evaluate("//a", document, XPathConstants.NODESET);
+        expressions.evaluate("//root", document, XPathConstants.NODESET);
+        expressions.evaluate("//a", document, XPathConstants.NODESET);
+        assertThat(expressions.size(), is(1));
+        assertThat(expressions.misses(), is(3L));
+        assertThat(expressions.compiles(), is(3L));
+    }
+
+    @Test
+    public void keepsExpressionsThatWereHitSinceTheLastMiss() throws Exception {
+        XPathExpressions expressions = xpathExpressions(2);
+        expressions.evaluate("//a", document, XPathConstants.NODESET);
+        expressions.evaluate("//root", document, XPathConstants.NODESET);
+        expressions.evaluate("//a", document, XPathConstants.NODESET);
+        expressions.evaluate("/root", document, XPathConstants.NODESET);
+        expressions.evaluate("//a", document, XPathConstants.NODESET);
+        assertThat(expressions.size(), is(2));
+        assertThat(expressions.misses(), is(3L));
+        assertThat(expressions.hits(), is(2L));
+    }
+
+    @Test
+    public void isUsedByXml() throws Exception {
+        long before = Xml.xpathExpressions().hits() + Xml.xpathExpressions().misses();
+        Xml.selectNodes(document, "//a");
+        Xml.selectNumber(document, "count(//a)");
+        Xml.matches(document, "//a");
+        assertThat(Xml.xpathExpressions().hits() + Xml.xpathExpressions().misses() - before, is(3L));
+    }
+}
@@ -1,7 +1,10 @@
 package com.googlecode.totallylazy.xml;
 
+import com.googlecode.totallylazy.Predicates;
 import com.googlecode.totallylazy.Sequence;
 import com.googlecode.totallylazy.Xml;
+import com.googlecode.totallylazy.callables.TimeReport;
+import com.googlecode.totallylazy.collections.PersistentMap;
 import com.googlecode.totallylazy.iterators.StatefulIterator;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -12,11 +15,16 @@ import java.util.Map;
 
 import static com.googlecode.totallylazy.Maps.map;
 import static com.googlecode.totallylazy.Pair.pair;
+import static com.googlecode.totallylazy.collections.ListMap.listMap;
+import static com.googlecode.totallylazy.collections.PersistentList.constructors.list;
 import static com.googlecode.totallylazy.Sequences.memorise;
+import static com.googlecode.totallylazy.Sequences.repeat;
 import static com.googlecode.totallylazy.matchers.IterableMatcher.hasExactly;
 import static com.googlecode.totallylazy.matchers.Matchers.is;
 import static com.googlecode.totallylazy.xml.StreamingXPath.descendant;
 import static com.googlecode.totallylazy.xml.StreamingXPath.name;
+import static com.googlecode.totallylazy.xml.StreamingXPath.xpath;
+import static com.googlecode.totallylazy.xml.XmlReader.records;
 import static com.googlecode.totallylazy.xml.XmlReader.xmlReader;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -125,4 +133,85 @@ public class XmlReaderTest {
         assertThat(Xml.asString(stream.first()), is("<item><child foo=\"bar\"/><child/></item>"));
         assertThat(Xml.asString(stream.second()), is("<item><child/><child baz=\"bar\"/></item>"));
     }
+
+    private static Sequence<String> select(String xml, String xpath) {
+        return memorise(xmlReader(new StringReader(xml), xpath(xpath))).map(Xml::asString);
+    }
+
+    @Test
+    public void supportsAnXPathSubset() throws Exception {
+        String xml = "<stream><item id='1' type='a'><child/></item><other><item id='2'/></other><item id='3' type='b'/><item id='4'/></stream>";
+        assertThat(select(xml, "/stream/item").size(), is(3));
+        assertThat(select(xml, "stream/item").size(), is(3));
+        assertThat(select(xml, "//item").size(), is(4));
+        assertThat(select(xml, "/stream/descendant::item").size(), is(4));
+        assertThat(select(xml, "/stream/*/item"), hasExactly("<item id=\"2\"/>"));
+        assertThat(select(xml, "/item").size(), is(0));
+        assertThat(select(xml, "//item//child"), hasExactly("<child/>"));
+        assertThat(select(xml, "//item[@type='b']"), hasExactly("<item id=\"3\" type=\"b\"/>"));
+        assertThat(select(xml, "//item[@type]").size(), is(2));
+        assertThat(select(xml, "/stream/item[2]"), hasExactly("<item id=\"3\" type=\"b\"/>"));
+        assertThat(select(xml, "//item[1]"), hasExactly("<item id=\"1\" type=\"a\"><child/></item>", "<item id=\"2\"/>"));
+        assertThat(select(xml, "/stream/item[2][@type]"), hasExactly("<item id=\"3\" type=\"b\"/>"));
+        assertThat(select(xml, "/stream/item[3][@type]").size(), is(0));
+    }
+
+    @Test
+    public void countsPositionsForCombinedXPaths() throws Exception {
+        String xml = "<stream><item id='1'/><other/><item id='2'/></stream>";
+        assertThat(select(xml, "/stream/item[2]"), hasExactly("<item id=\"2\"/>"));
+        assertThat(memorise(xmlReader(new StringReader(xml), xpath("/stream/item[2]").or(xpath("//other")))).size(), is(2));
+        assertThat(StreamingXPath.positional(xpath("//item")), is(false));
+        assertThat(StreamingXPath.positional(Predicates.not(xpath("/stream/item[2]"))), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsAPositionAfterAnotherPredicate() throws Exception {
+        xpath("/stream/item[@id='4'][1]");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsXPathOutsideTheSubset() throws Exception {
+        xpath("//item[last()]");
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void xpathComparedToADocument() throws Exception {
+        String xml = repeat("<item type='a'><title>Hello</title></item><item type='b'><title>World</title></item>").take(50000).toString("<feed>", "", "</feed>");
+        System.out.println("Xml.selectNodes: " + TimeReport.time(10, () -> Xml.selectNodes(Xml.document(xml), "/feed/item[@type='b']/title").size()));
+        System.out.println("XmlReader name: " + TimeReport.time(10, () -> memorise(xmlReader(new StringReader(xml), "title")).size()));
+        System.out.println("XmlReader xpath: " + TimeReport.time(10, () -> memorise(xmlReader(new StringReader(xml), xpath("/feed/item[@type='b']/title"))).size()));
+    }
+
+    @Test
+    public void canReadMatchesAsRecords() throws Exception {
+        String xml = "<stream><user id='1'><first>Dan</first><tag>a</tag><tag>b</tag><address type='home'>Here</address><empty/></user></stream>";
+        Sequence<PersistentMap<String, Object>> users = memorise(records(new StringReader(xml), xpath("//user")));
+        assertThat(users.size(), is(1));
+        PersistentMap<String, Object> user = users.head();
+        assertThat(user.get("@id"), is((Object) "1"));
+        assertThat(user.get("first"), is((Object) "Dan"));
+        assertThat(user.get("tag"), is((Object) list("a", "b")));
+        assertThat(user.get("address"), is((Object) listMap("@type", "home", RecordCreator.TEXT, "Here")));
+        assertThat(user.get("empty"), is((Object) ""));
+        assertThat(user.keySet(), hasExactly("@id", "first", "tag", "address", "empty"));
+    }
+
+    @Test
+    public void onlyCapturesProjectedFields() throws Exception {
+        String xml = "<stream><user><first>Dan</first><dob>1977</dob><address><city>London</city><street>Here</street></address></user><user><first>Jason</first></user></stream>";
+        Sequence<PersistentMap<String, Object>> users = memorise(records(new StringReader(xml), xpath("/stream/user"), xpath("first").or(xpath("address/city"))));
+        assertThat(users.first(), is(listMap("first", (Object) "Dan", "address", listMap("city", "London"))));
+        assertThat(users.second(), is(listMap("first", (Object) "Jason")));
+    }
+
+    @Test
+    @Ignore("Manual Performance Test")
+    public void recordsComparedToNodes() throws Exception {
+        String xml = repeat("<item type='a'><title>Hello</title><body>Some text</body></item>").take(100000).toString("<feed>", "", "</feed>");
+        System.out.println("Nodes: " + TimeReport.time(10, () -> memorise(xmlReader(new StringReader(xml), "item")).size()));
+        System.out.println("Records: " + TimeReport.time(10, () -> memorise(records(new StringReader(xml), xpath("//item"))).size()));
+        System.out.println("Projected records: " + TimeReport.time(10, () -> memorise(records(new StringReader(xml), xpath("//item"), xpath("title"))).size()));
+    }
 }